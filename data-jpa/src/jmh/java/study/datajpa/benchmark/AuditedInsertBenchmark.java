@@ -0,0 +1,123 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 감사(auditing) 필드가 채워지는 insert 처리량 (여러 스레드 동시 실행)
+ *
+ * auditing 파라미터로 감사 값 공급자를 바꿔서 같은 insert 경로를 비교한다.
+ * - auditContext : AuditContext (auditor, 시각 모두 트랜잭션마다 하나, auditor 는 ThreadLocalRandom UUID)
+ * - baseline : 이전 공급자 (엔티티마다 UUID.randomUUID() / LocalDateTime.now())
+ *
+ * - perEntityTransaction : 엔티티마다 트랜잭션 하나 > 두 공급자 모두 auditor, 시각을 매번 새로 만든다.
+ * - batchedTransaction : 트랜잭션 하나에 BATCH 개 > AuditContext 는 auditor, 시각을 한 번만 만들고
+ *   baseline 은 엔티티마다 UUID.randomUUID(), LocalDateTime.now() 를 부른다.
+ *
+ * 처리량 단위는 insert 한 엔티티 수 (ops = entity)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class AuditedInsertBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"auditContext", "baseline"})
+    private String auditing;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "baseline".equals(auditing)
+                ? BenchmarkContext.start(new Class<?>[]{BaselineAuditing.class})
+                : BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void perEntityTransaction() {
+        for (int i = 0; i < BATCH; i++) {
+            transactionTemplate.executeWithoutResult(status -> memberRepository.save(newMember()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long batchedTransaction() {
+        List<Member> members = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            members.add(newMember());
+        }
+        return memberRepository.saveAllBatched(members);
+    }
+
+    private Member newMember() {
+        long id = sequence.incrementAndGet();
+        return new Member("audit" + id, (int) (id % 100));
+    }
+
+    /**
+     * DataJpaApplication 의 감사 값 공급자를 이전 구현으로 덮어쓴다. (같은 빈 이름)
+     * > @Configuration 을 붙이면 컴포넌트 스캔으로 다른 벤치마크에도 적용되므로 붙이지 않는다.
+     */
+    public static class BaselineAuditing {
+
+        @Bean
+        public AuditorAware<String> provideAuditor() {
+            return () -> Optional.of(UUID.randomUUID().toString());
+        }
+
+        @Bean
+        public DateTimeProvider auditDateTimeProvider() {
+            return () -> Optional.of(LocalDateTime.now());
+        }
+
+    }
+
+}
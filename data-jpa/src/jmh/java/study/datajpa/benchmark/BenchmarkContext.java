@@ -0,0 +1,64 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.seed.DatasetSeedProperties;
+import study.datajpa.seed.DatasetSeeder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트
+ *
+ * - H2 in-memory DB 를 trial 마다 새로 만든다.
+ * - p6spy, SQL 로그, Hibernate 통계처럼 측정에 끼어드는 설정은 끈다.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(new Class<?>[0], properties);
+    }
+
+    /**
+     * overrides 의 @Bean 이 애플리케이션의 같은 이름 빈을 덮어쓴다. (비교용 기준 구현을 끼워 넣을 때)
+     */
+    public static ConfigurableApplicationContext start(Class<?>[] overrides, String... properties) {
+        List<String> defaults = new ArrayList<>(Arrays.asList(
+                "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "decorator.datasource.enabled=false",
+                "logging.level.org.hibernate.SQL=warn",
+                "logging.level.root=warn"
+        ));
+        if (overrides.length > 0) {
+            defaults.add("spring.main.allow-bean-definition-overriding=true");
+        }
+        defaults.addAll(Arrays.asList(properties));
+
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .sources(overrides)
+                .web(WebApplicationType.NONE)
+                .properties(defaults.toArray(new String[0]))
+                .run();
+    }
+
+    /**
+     * teams 개 팀에 members 명을 고르게 나눠서 넣는다. (DatasetSeeder, JDBC batch)
+     * 회원 이름은 member0 ~ member{members - 1}
+     */
+    public static void seed(ConfigurableApplicationContext context, int members, int teams) {
+        DatasetSeedProperties spec = new DatasetSeedProperties();
+        spec.setMembers(members);
+        spec.setTeams(teams);
+        context.getBean(DatasetSeeder.class).seed(spec);
+    }
+
+}
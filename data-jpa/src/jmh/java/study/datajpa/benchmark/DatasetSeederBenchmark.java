@@ -0,0 +1,86 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.seed.DatasetSeedProperties;
+import study.datajpa.seed.DatasetSeeder;
+import study.datajpa.seed.SeedResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatasetSeeder 적재 처리량
+ *
+ * 호출 한 번에 팀 TEAMS 개, 회원 MEMBERS 명을 넣는다. (userName 은 natural id 이므로 호출마다 prefix 를 바꾼다)
+ * 이름 인덱스 재생성은 적재 경로가 아니므로 끈다.
+ *
+ * 처리량 단위는 insert 한 행 수 (ops = row)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DatasetSeederBenchmark {
+
+    private static final int TEAMS = 100;
+    private static final int MEMBERS = 100_000;
+
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private DatasetSeeder datasetSeeder;
+    private JdbcTemplate jdbcTemplate;
+    private long invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        datasetSeeder = context.getBean(DatasetSeeder.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    // 반복(iteration)마다 비워서 테이블 크기가 측정에 끼어들지 않게 한다.
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEAMS + MEMBERS)
+    public SeedResult seed() {
+        long current = invocation++;
+
+        DatasetSeedProperties spec = new DatasetSeedProperties();
+        spec.setTeams(TEAMS);
+        spec.setMembers(MEMBERS);
+        spec.setBatchSize(batchSize);
+        spec.setUserNamePrefix("seed" + current + "-");
+        spec.setTeamNamePrefix("seed" + current + "-team");
+        spec.setRebuildNameIndex(false);
+        return datasetSeeder.seed(spec);
+    }
+
+}
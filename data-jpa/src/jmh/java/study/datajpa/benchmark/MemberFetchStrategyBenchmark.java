@@ -0,0 +1,166 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.dto.MemberDto;
+import study.datajpa.entity.member.projections.MemberProjection;
+import study.datajpa.entity.member.projections.MemberUserNameOnly;
+import study.datajpa.entity.member.projections.NestedClosedProjections;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberRepository 조회 전략별 비교
+ *
+ * - 전체 조회 : fetch join / @EntityGraph findAll / DTO 조회
+ * - 단건 조회 : @EntityGraph / open projection / nested projection
+ * - 페이지 조회 : native query + interface projection / 엔티티 > DTO 변환 / DTO 직접 조회
+ *
+ * 각 조회는 읽기 전용 트랜잭션 하나에서 실행하고, 결과의 모든 값을 Blackhole 로 소비한다.
+ * (지연 로딩, 프로젝션 프록시 평가 비용까지 포함)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MemberFetchStrategyBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int members;
+
+    // 팀 수 (팀당 회원 수 = members / teams)
+    @Param({"10", "1000"})
+    public int teams;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnly;
+    private String userName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, members, teams);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        userName = "member" + (members / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole blackhole) {
+        inReadOnly(() -> memberRepository.findMemberFetchJoin().forEach(member -> consume(blackhole, member)));
+    }
+
+    @Benchmark
+    public void entityGraphFindAll(Blackhole blackhole) {
+        inReadOnly(() -> memberRepository.findAll().forEach(member -> consume(blackhole, member)));
+    }
+
+    @Benchmark
+    public void memberDto(Blackhole blackhole) {
+        inReadOnly(() -> {
+            for (MemberDto memberDto : memberRepository.findMemberDto()) {
+                blackhole.consume(memberDto.getId());
+                blackhole.consume(memberDto.getUserName());
+                blackhole.consume(memberDto.getTeamName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void entityGraphByUserName(Blackhole blackhole) {
+        inReadOnly(() -> memberRepository.findEntityGraphByUserName(userName).forEach(member -> consume(blackhole, member)));
+    }
+
+    @Benchmark
+    public void openProjectionByUserName(Blackhole blackhole) {
+        inReadOnly(() -> {
+            for (MemberUserNameOnly projection : memberRepository.findProjectionByUserName(userName)) {
+                blackhole.consume(projection.getUserName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void nestedProjectionByUserName(Blackhole blackhole) {
+        inReadOnly(() -> {
+            for (NestedClosedProjections projection : memberRepository.findNestedProjectionByUserName(userName)) {
+                blackhole.consume(projection.getUserName());
+                blackhole.consume(projection.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void nativeProjectionPage(Blackhole blackhole) {
+        inReadOnly(() -> {
+            for (MemberProjection projection : memberRepository.findByNativeProjection(PageRequest.of(0, pageSize))) {
+                blackhole.consume(projection.getId());
+                blackhole.consume(projection.getUserName());
+                blackhole.consume(projection.getTeamName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void entityPageMappedToDto(Blackhole blackhole) {
+        PageRequest pageRequest = PageRequest.of(members / pageSize / 2, pageSize, Sort.by("id"));
+        inReadOnly(() -> {
+            for (Member member : memberRepository.findAllWithCachedCount(pageRequest)) {
+                blackhole.consume(new MemberDto(member.getId(), member.getUserName(), member.getTeamName()));
+            }
+        });
+    }
+
+    @Benchmark
+    public void dtoPage(Blackhole blackhole) {
+        PageRequest pageRequest = PageRequest.of(members / pageSize / 2, pageSize, Sort.by("id"));
+        inReadOnly(() -> {
+            for (MemberDto memberDto : memberRepository.findMemberDtoPage(pageRequest)) {
+                blackhole.consume(memberDto);
+            }
+        });
+    }
+
+    private void inReadOnly(Runnable action) {
+        readOnly.executeWithoutResult(status -> action.run());
+    }
+
+    private static void consume(Blackhole blackhole, Member member) {
+        blackhole.consume(member.getId());
+        blackhole.consume(member.getUserName());
+        blackhole.consume(member.getTeamName());
+    }
+
+}
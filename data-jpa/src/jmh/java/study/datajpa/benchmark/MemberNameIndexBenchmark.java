@@ -0,0 +1,78 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.member.dto.MemberNameDto;
+import study.datajpa.search.MemberNameIndex;
+import study.datajpa.search.MemberNameIndexStats;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberNameIndex top-K 검색 지연 시간 (/members/search?prefix=)
+ *
+ * members 명을 넣고 (적재 후 인덱스를 다시 만든다) 메모리 사용량 / 재생성 시간을 같이 출력한다.
+ * 검색은 SampleTime 으로 재서 p99 / p99.9 를 본다. (목표 : 1ms 미만)
+ *
+ * - member : 모든 이름에 걸리는 접두사 (앞에서 limit 개)
+ * - member5 : 약 1/10 에 걸리는 접두사
+ * - member54321 : 몇 개만 걸리는 접두사
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MemberNameIndexBenchmark {
+
+    @Param({"1000000"})
+    public int members;
+
+    @Param({"100"})
+    public int teams;
+
+    @Param({"member", "member5", "member54321"})
+    public String prefix;
+
+    @Param({"10"})
+    public int limit;
+
+    private ConfigurableApplicationContext context;
+    private MemberNameIndex memberNameIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, members, teams);
+
+        memberNameIndex = context.getBean(MemberNameIndex.class);
+        MemberNameIndexStats stats = memberNameIndex.stats(); // seed 가 적재 후 다시 만든다.
+        System.out.printf("%n##### member name index : entries=%,d, estimatedBytes=%,d, rebuildMillis=%,d%n",
+                stats.getEntries(), stats.getEstimatedBytes(), stats.getLastRebuildMillis());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberNameDto> search() {
+        return memberNameIndex.search(prefix, limit);
+    }
+
+}
@@ -0,0 +1,119 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.dto.MemberDto;
+import study.datajpa.repository.MemberReportJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 리포트 조회 : EntityManager (getResultList) vs StatelessSession (scroll + 콜백)
+ *
+ * 한 번 실행에 전체 행을 읽으므로 AverageTime 으로 잰다.
+ * 할당량은 gc 프로파일러의 gc.alloc.rate.norm (B/op) 을 본다. (build.gradle jmh.profilers)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class MemberReportBenchmark {
+
+    @Param({"1000000"})
+    public int members;
+
+    @Param({"100"})
+    public int teams;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private MemberReportJpaRepository memberReportJpaRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, members, teams);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberReportJpaRepository = context.getBean(MemberReportJpaRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void userNamesEntityManager(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> memberRepository.findUserNameList().forEach(blackhole::consume));
+    }
+
+    @Benchmark
+    public void userNamesStateless(Blackhole blackhole) {
+        memberReportJpaRepository.forEachUserName(blackhole::consume);
+    }
+
+    @Benchmark
+    public void memberDtoEntityManager(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            for (MemberDto memberDto : memberRepository.findMemberDto()) {
+                consume(blackhole, memberDto);
+            }
+        });
+    }
+
+    @Benchmark
+    public void memberDtoStateless(Blackhole blackhole) {
+        memberReportJpaRepository.forEachMemberDto(memberDto -> consume(blackhole, memberDto));
+    }
+
+    @Benchmark
+    public void fullScanEntityManager(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            for (Member member : memberRepository.findMemberFetchJoin()) {
+                consume(blackhole, member);
+            }
+        });
+    }
+
+    @Benchmark
+    public void fullScanStateless(Blackhole blackhole) {
+        memberReportJpaRepository.forEachMember(member -> consume(blackhole, member));
+    }
+
+    private static void consume(Blackhole blackhole, MemberDto memberDto) {
+        blackhole.consume(memberDto.getId());
+        blackhole.consume(memberDto.getUserName());
+        blackhole.consume(memberDto.getTeamName());
+    }
+
+    private static void consume(Blackhole blackhole, Member member) {
+        blackhole.consume(member.getId());
+        blackhole.consume(member.getUserName());
+        blackhole.consume(member.getAge());
+        blackhole.consume(member.getTeamName());
+    }
+
+}
@@ -0,0 +1,150 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.projections.MemberProjection;
+import study.datajpa.entity.member.projections.MemberUserNameOnly;
+import study.datajpa.entity.member.projections.NestedClosedProjections;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.ProjectionMaterializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인터페이스 프로젝션 : 스프링 데이터 프록시 vs ProjectionMaterializer (생성된 클래스 + 컴파일된 SpEL)
+ *
+ * - *InMemory : 미리 읽어 둔 Member 목록을 프로젝션으로 바꾸고 모든 getter 를 호출한다. (프로젝션 비용만)
+ * - nativeSlice* : native 쿼리 Slice 조회 (DB 포함, count 쿼리 없음)
+ *   > Page 로 비교하면 프록시 쪽은 매번 countQuery 를, 생성된 클래스 쪽은 CountCache 를 거치므로 count 전략까지 같이 재게 된다.
+ *
+ * 할당량은 gc 프로파일러의 gc.alloc.rate.norm (B/op) 을 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    @Param({"100000"})
+    public int members;
+
+    @Param({"1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private ProjectionMaterializer projectionMaterializer;
+    private SpelAwareProxyProjectionFactory proxyFactory;
+    private TransactionTemplate readOnly;
+    private List<Member> loaded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, members, 100);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        projectionMaterializer = context.getBean(ProjectionMaterializer.class);
+        proxyFactory = new SpelAwareProxyProjectionFactory();
+        proxyFactory.setBeanFactory(context.getBeanFactory());
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        // 준영속 상태로 들고 있는다. (team 은 페치 조인)
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            loaded = entityManager.createQuery("select m from Member m left join fetch m.team order by m.id", Member.class)
+                    .setMaxResults(rows)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void openProxyInMemory(Blackhole blackhole) {
+        for (Member member : loaded) {
+            blackhole.consume(proxyFactory.createProjection(MemberUserNameOnly.class, member).getUserName());
+        }
+    }
+
+    @Benchmark
+    public void openMaterializedInMemory(Blackhole blackhole) {
+        for (MemberUserNameOnly projection : projectionMaterializer.fromTargets(MemberUserNameOnly.class, loaded)) {
+            blackhole.consume(projection.getUserName());
+        }
+    }
+
+    @Benchmark
+    public void nestedProxyInMemory(Blackhole blackhole) {
+        for (Member member : loaded) {
+            consume(blackhole, proxyFactory.createProjection(NestedClosedProjections.class, member));
+        }
+    }
+
+    @Benchmark
+    public void nestedMaterializedInMemory(Blackhole blackhole) {
+        for (NestedClosedProjections projection : projectionMaterializer.fromTargets(NestedClosedProjections.class, loaded)) {
+            consume(blackhole, projection);
+        }
+    }
+
+    @Benchmark
+    public void nativeSliceProxy(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            for (MemberProjection projection : memberRepository.findSliceByNativeProjection(PageRequest.of(0, rows))) {
+                consume(blackhole, projection);
+            }
+        });
+    }
+
+    @Benchmark
+    public void nativeSliceMaterialized(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            for (MemberProjection projection : memberRepository.findSliceByNativeProjectionMaterialized(PageRequest.of(0, rows))) {
+                consume(blackhole, projection);
+            }
+        });
+    }
+
+    private static void consume(Blackhole blackhole, NestedClosedProjections projection) {
+        blackhole.consume(projection.getUserName());
+        NestedClosedProjections.TeamInfo team = projection.getTeam();
+        blackhole.consume(team == null ? null : team.getName());
+    }
+
+    private static void consume(Blackhole blackhole, MemberProjection projection) {
+        blackhole.consume(projection.getId());
+        blackhole.consume(projection.getUserName());
+        blackhole.consume(projection.getTeamName());
+    }
+
+}
@@ -0,0 +1,73 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.member.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RepositoryMetricsAspect 를 켰을 때 / 껐을 때 repository 호출 비용 비교
+ *
+ * 오버헤드가 잘 드러나도록 가벼운 호출만 잰다.
+ * - findById : 2차 캐시 hit (SQL 없음)
+ * - findNextById : keyset 10건 조회
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class RepositoryMetricsOverheadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private Long memberId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("datajpa.repository-metrics.enabled=" + metrics);
+        BenchmarkContext.seed(context, 10_000, 10);
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberId = memberRepository.findNextById(null, 1).get(0).getId();
+        memberRepository.findById(memberId); // 2차 캐시에 올린다.
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Member> findById() {
+        return memberRepository.findById(memberId);
+    }
+
+    @Benchmark
+    public List<Member> findNextById() {
+        return memberRepository.findNextById(memberId, 10);
+    }
+
+}
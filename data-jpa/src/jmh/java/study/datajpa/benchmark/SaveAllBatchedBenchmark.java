@@ -0,0 +1,101 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 insert 경로별 처리량
+ *
+ * - saveEach : 기존 경로 (save() 한 번에 트랜잭션 하나, 이전 MemberController.init / 테스트)
+ * - saveInTransaction : 트랜잭션 하나에서 save() 를 ROWS 번 (영속성 컨텍스트에 계속 쌓인다)
+ * - saveAllBatched : 트랜잭션 하나에서 JDBC batch + batch_size 마다 flush / clear
+ *
+ * 처리량 단위는 insert 한 행 수 (ops = row)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SaveAllBatchedBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    // 반복(iteration)마다 비워서 테이블 크기가 측정에 끼어들지 않게 한다.
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.update("delete from member");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveEach() {
+        for (Member member : newMembers()) {
+            memberRepository.save(member);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveInTransaction() {
+        List<Member> members = newMembers();
+        transactionTemplate.executeWithoutResult(status -> members.forEach(memberRepository::save));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long saveAllBatched() {
+        return memberRepository.saveAllBatched(newMembers());
+    }
+
+    private List<Member> newMembers() {
+        List<Member> members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long id = sequence++;
+            members.add(new Member("batch" + id, (int) (id % 100)));
+        }
+        return members;
+    }
+
+}
@@ -0,0 +1,128 @@
+package study.datajpa.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.seed.DatasetSeedProperties;
+import study.datajpa.seed.DatasetSeeder;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * MemberController HTTP 부하 테스트
+ *
+ * 1. 임베디드 톰캣(임의 포트) + H2 in-memory DB 로 애플리케이션을 띄운다.
+ * 2. --members 명 / --teams 개 팀 데이터를 넣는다.
+ * 3. 시나리오(--scenarios)마다 --rate 초당 요청 수로 --warmup 초 + --duration 초 동안 보낸다.
+ * 4. build/reports/loadtest 에 결과를 남긴다. (LoadTestReport)
+ *
+ * 시나리오
+ * - members : GET /members?page={random}&size=20 (DTO 페이징 + count 캐시)
+ * - members1 : GET /members1/{random id} (findById)
+ * - members2 : GET /members2/{random id} (도메인 컨버터)
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int members = Integer.parseInt(options.getOrDefault("members", "100000"));
+        int teams = Integer.parseInt(options.getOrDefault("teams", "100"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int workers = Integer.parseInt(options.getOrDefault("workers", "64"));
+        String[] scenarios = options.getOrDefault("scenarios", "members,members1,members2").split(",");
+        String reportDir = options.getOrDefault("report-dir", "build/reports/loadtest");
+
+        // JDK keep-alive 풀 크기 (기본 5개면 나머지 요청은 매번 새 소켓을 연다)
+        System.setProperty("http.maxConnections", String.valueOf(workers));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "decorator.datasource.enabled=false",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "logging.level.root=warn"
+                )
+                .run();
+        try {
+            seed(context, members, teams);
+            long[] idRange = idRange(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator("http://localhost:" + port, workers);
+
+            List<ScenarioResult> results = new ArrayList<>();
+            for (String scenario : scenarios) {
+                System.out.printf("%s : %.0f req/s, warmup %ds, duration %ds%n", scenario, rate, warmup, duration);
+                results.add(generator.run(scenario, paths(scenario, members, idRange), rate, warmup, duration));
+            }
+
+            LoadTestReport.write(Paths.get(reportDir), results);
+            LoadTestReport.print(System.out, results);
+            System.out.println("Report : " + Paths.get(reportDir).toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Supplier<String> paths(String scenario, int members, long[] idRange) {
+        switch (scenario) {
+            case "members":
+                int pages = Math.max(1, members / 20);
+                return () -> "/members?page=" + ThreadLocalRandom.current().nextInt(pages) + "&size=20";
+            case "members1":
+                return () -> "/members1/" + ThreadLocalRandom.current().nextLong(idRange[0], idRange[1] + 1);
+            case "members2":
+                return () -> "/members2/" + ThreadLocalRandom.current().nextLong(idRange[0], idRange[1] + 1);
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int members, int teams) {
+        DatasetSeedProperties spec = new DatasetSeedProperties();
+        spec.setMembers(members);
+        spec.setTeams(teams);
+        context.getBean(DatasetSeeder.class).seed(spec);
+    }
+
+    private static long[] idRange(ConfigurableApplicationContext context) {
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            Object[] range = entityManager.createQuery("select min(m.id), max(m.id) from Member m", Object[].class)
+                    .getSingleResult();
+            return new long[]{(Long) range[0], (Long) range[1]};
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    // --key=value
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isEmpty()) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but was: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+}
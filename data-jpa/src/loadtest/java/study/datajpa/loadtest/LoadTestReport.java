@@ -0,0 +1,65 @@
+package study.datajpa.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 부하 테스트 결과 파일
+ *
+ * - summary.csv : 시나리오별 한 줄 (빌드끼리 diff / 비교용)
+ * - {scenario}.hgrm : 보정된 지연 시간 백분위 분포 (HdrHistogram plotter 로 그래프를 그릴 수 있다, 단위 ms)
+ */
+public final class LoadTestReport {
+
+    private static final String HEADER = "scenario,target_rps,achieved_rps,requests,errors,"
+            + "p50_ms,p90_ms,p99_ms,p999_ms,max_ms,service_p50_ms,service_p99_ms";
+
+    private LoadTestReport() {
+    }
+
+    public static void write(Path directory, List<ScenarioResult> results) throws IOException {
+        Files.createDirectories(directory);
+
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(directory.resolve("summary.csv")), false, StandardCharsets.UTF_8.name())) {
+            summary.println(HEADER);
+            for (ScenarioResult result : results) {
+                summary.println(line(result));
+            }
+        }
+
+        for (ScenarioResult result : results) {
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(result.getName() + ".hgrm")), false, StandardCharsets.UTF_8.name())) {
+                result.getLatency().outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+    }
+
+    public static void print(PrintStream out, List<ScenarioResult> results) {
+        out.println(HEADER);
+        for (ScenarioResult result : results) {
+            out.println(line(result));
+        }
+    }
+
+    private static String line(ScenarioResult result) {
+        return String.format(Locale.ROOT, "%s,%.1f,%.1f,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                result.getName(),
+                result.getTargetRate(),
+                result.getAchievedRate(),
+                result.getRequests(),
+                result.getErrors(),
+                ScenarioResult.millis(result.getLatency(), 50),
+                ScenarioResult.millis(result.getLatency(), 90),
+                ScenarioResult.millis(result.getLatency(), 99),
+                ScenarioResult.millis(result.getLatency(), 99.9),
+                result.getLatency().getMaxValue() / 1000.0,
+                ScenarioResult.millis(result.getServiceTime(), 50),
+                ScenarioResult.millis(result.getServiceTime(), 99));
+    }
+
+}
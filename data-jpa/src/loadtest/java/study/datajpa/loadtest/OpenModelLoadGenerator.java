@@ -0,0 +1,117 @@
+package study.datajpa.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open model (일정한 도착률) 부하 생성기
+ *
+ * i 번째 요청은 start + i * (1 / rate) 에 보내기로 "예정"하고, 응답 시간은 그 예정 시각부터 잰다.
+ * 서버가 느려져서 요청이 밀리면(워커 큐 대기, 전송 지연) 그 시간까지 지연 시간에 들어간다.
+ * > closed model(응답을 받아야 다음 요청)처럼 느린 구간의 요청 수가 줄어드는 coordinated omission 을 막는다.
+ *
+ * HTTP 클라이언트는 JDK HttpURLConnection (keep-alive 재사용, http.maxConnections 는 LoadTestMain 에서 맞춘다)
+ */
+public class OpenModelLoadGenerator {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    private static final int READ_TIMEOUT_MILLIS = 30_000;
+
+    private final String baseUrl;
+    private final int workers;
+
+    public OpenModelLoadGenerator(String baseUrl, int workers) {
+        this.baseUrl = baseUrl;
+        this.workers = workers;
+    }
+
+    /**
+     * warmupSeconds 동안은 기록하지 않고, 이어서 durationSeconds 동안 rate 로 보낸 요청만 기록한다.
+     */
+    public ScenarioResult run(String name, Supplier<String> paths, double rate,
+                              int warmupSeconds, int durationSeconds) throws InterruptedException {
+        Recorder latency = new Recorder(3);
+        Recorder serviceTime = new Recorder(3);
+        LongAdder errors = new LongAdder();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                parkUntil(intended);
+
+                boolean measured = intended >= measureFrom;
+                String path = paths.get();
+                executor.execute(() -> {
+                    long sentAt = System.nanoTime();
+                    boolean success = call(path);
+                    long doneAt = System.nanoTime();
+                    if (measured) {
+                        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(doneAt - intended));
+                        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(doneAt - sentAt));
+                        if (!success) {
+                            errors.increment();
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!executor.awaitTermination(READ_TIMEOUT_MILLIS * 2L, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+
+        return new ScenarioResult(name, rate, durationSeconds, errors.sum(),
+                latency.getIntervalHistogram(), serviceTime.getIntervalHistogram());
+    }
+
+    private boolean call(String path) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            int status = connection.getResponseCode();
+
+            // 본문을 끝까지 읽어야 커넥션이 keep-alive 풀로 돌아간다.
+            try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (body != null) {
+                    byte[] buffer = new byte[8192];
+                    while (body.read(buffer) != -1) {
+                        // discard
+                    }
+                }
+            }
+            return status < 400;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // 이미 늦었으면 바로 보낸다. (예정 시각은 그대로 두므로 늦은 만큼 지연 시간에 들어간다)
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+}
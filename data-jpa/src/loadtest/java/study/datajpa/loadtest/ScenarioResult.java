@@ -0,0 +1,64 @@
+package study.datajpa.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * 시나리오 하나의 측정 결과 (측정 구간만, warmup 제외)
+ *
+ * - latency : 예정된 전송 시각부터 응답까지 (coordinated omission 보정, 큐 대기 포함)
+ * - serviceTime : 실제로 보낸 시각부터 응답까지 (보정 X, 비교용)
+ *
+ * 히스토그램 단위는 마이크로초
+ */
+public class ScenarioResult {
+
+    private final String name;
+    private final double targetRate;
+    private final double durationSeconds;
+    private final long errors;
+    private final Histogram latency;
+    private final Histogram serviceTime;
+
+    public ScenarioResult(String name, double targetRate, double durationSeconds, long errors,
+                          Histogram latency, Histogram serviceTime) {
+        this.name = name;
+        this.targetRate = targetRate;
+        this.durationSeconds = durationSeconds;
+        this.errors = errors;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public long getRequests() {
+        return latency.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getAchievedRate() {
+        return getRequests() / durationSeconds;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+}
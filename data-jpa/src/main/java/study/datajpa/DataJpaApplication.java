@@ -3,13 +3,16 @@ package study.datajpa;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import study.datajpa.entity.AuditContext;
 
 import java.util.Optional;
-import java.util.UUID;
 
-@EnableJpaAuditing // 없으면 스프링 데이터 JPA aop 적용 안됨
+@EnableJpaAuditing(dateTimeProviderRef = "auditDateTimeProvider") // 없으면 스프링 데이터 JPA aop 적용 안됨
+@EnableScheduling // AdaptivePoolSizer
 @SpringBootApplication
 public class DataJpaApplication {
 
@@ -17,9 +20,16 @@ public class DataJpaApplication {
 		SpringApplication.run(DataJpaApplication.class, args);
 	}
 
+	// 트랜잭션마다 한 번만 만든다. (AuditContext)
 	@Bean
 	public AuditorAware<String> provideAuditor() {
-		return () -> Optional.of(UUID.randomUUID().toString());
+		return () -> Optional.of(AuditContext.currentAuditor());
+	}
+
+	// 트랜잭션마다 하나, flush 가 시작되면 새로 정한다. (AuditContext)
+	@Bean
+	public DateTimeProvider auditDateTimeProvider() {
+		return () -> Optional.of(AuditContext.now());
 	}
 
 }
@@ -0,0 +1,92 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.dto.MemberDto;
+import study.datajpa.entity.member.dto.MemberVersionDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.Optional;
+
+/**
+ * MemberController 조회 응답의 ETag / 응답 캐시
+ *
+ * 1. 같은 version 의 캐시 항목이 있으면 DB 없이 304 또는 캐시된 본문
+ * 2. 없으면 lastModifiedDateTime 만 읽어서 ETag 를 만들고, If-None-Match 와 같으면 304 (본문 조회 X)
+ * 3. 다르면 본문을 조회해서 캐시에 넣는다.
+ *
+ * 반환값이 null 이면 304 로 응답한다. (WebRequest.checkNotModified 가 상태 코드, ETag 헤더를 설정)
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberResponseCache {
+
+    private final ResponseCache responseCache;
+    private final MemberRepository memberRepository;
+
+    // ETag : 페이지 회원들의 (id, Member / Team 수정 시각) + total count
+    @SuppressWarnings("unchecked")
+    public Page<MemberDto> memberPage(Pageable pageable, WebRequest request) {
+        String key = "members?page=" + pageable.getPageNumber() + "&size=" + pageable.getPageSize() + "&sort=" + pageable.getSort();
+        long version = responseCache.version();
+        ResponseCache.Entry cached = responseCache.get(key, version);
+        if (cached != null) {
+            if (request.checkNotModified(cached.getEtag())) {
+                return null;
+            }
+            if (cached.getBody() != null) {
+                return (Page<MemberDto>) cached.getBody();
+            }
+        }
+
+        Page<MemberVersionDto> versions = memberRepository.findMemberVersionPage(pageable);
+        StringBuilder content = new StringBuilder(key).append(':').append(versions.getTotalElements());
+        for (MemberVersionDto memberVersion : versions) {
+            content.append(':').append(memberVersion.getId())
+                    .append('/').append(memberVersion.getMemberLastModified())
+                    .append('/').append(memberVersion.getTeamLastModified());
+        }
+        String etag = responseCache.etag(content);
+        if (request.checkNotModified(etag)) {
+            responseCache.put(key, version, etag, null);
+            return null;
+        }
+
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(pageable);
+        responseCache.put(key, version, etag, page);
+        return page;
+    }
+
+    // ETag : 회원의 수정 시각 (없는 회원이면 빈 응답용 ETag)
+    public String memberName(Long id, WebRequest request) {
+        String key = "members1/" + id;
+        long version = responseCache.version();
+        ResponseCache.Entry cached = responseCache.get(key, version);
+        if (cached != null) {
+            if (request.checkNotModified(cached.getEtag())) {
+                return null;
+            }
+            if (cached.getBody() != null) {
+                return (String) cached.getBody();
+            }
+        }
+
+        Optional<MemberVersionDto> memberVersion = memberRepository.findMemberVersion(id);
+        String etag = responseCache.etag(key + ':' + memberVersion.map(MemberVersionDto::getMemberLastModified).map(String::valueOf).orElse("none"));
+        if (request.checkNotModified(etag)) {
+            responseCache.put(key, version, etag, null);
+            return null;
+        }
+
+        String userName = memberVersion.isPresent()
+                ? memberRepository.findById(id).map(Member::getUserName).orElse("")
+                : "";
+        responseCache.put(key, version, etag, userName);
+        return userName;
+    }
+
+}
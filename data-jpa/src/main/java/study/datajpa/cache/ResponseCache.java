@@ -0,0 +1,134 @@
+package study.datajpa.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 버전 기반 응답 캐시 (ETag + 응답 본문)
+ *
+ * - Member / Team 이 커밋될 때마다 version 이 올라간다. (ResponseCacheInvalidator)
+ *   같은 version 에서 저장한 항목만 유효하므로, 변경이 없는 동안은 DB 없이 304 / 캐시된 본문을 돌려준다.
+ * - ETag 는 lastModifiedDateTime 으로 만들고, 여기에 인스턴스 id 와 bulk 세대를 섞는다.
+ *   > bulk 연산, DatasetSeeder 는 lastModifiedDateTime 을 바꾸지 않으므로 bulk 세대를 올려서 이전 ETag 를 전부 무효로 만든다.
+ *   > 재시작하면 bulk 세대가 0 부터 다시 시작하므로 인스턴스 id 로 구분한다.
+ */
+@Component
+public class ResponseCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong bulkGeneration = new AtomicLong();
+    // access-order LinkedHashMap. max-entries 를 넘으면 가장 오래 안 쓴 항목 하나만 내보낸다. (LRU, CountCache 와 동일)
+    private final Map<String, Entry> entries;
+
+    public ResponseCache(@Value("${datajpa.response-cache.enabled:true}") boolean enabled,
+                         @Value("${datajpa.response-cache.max-entries:10000}") int maxEntries) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    // 응답을 계산하기 전에 읽어 두고 put 할 때 넘긴다. (계산 중에 변경이 커밋되면 그 항목은 바로 무효)
+    public long version() {
+        return version.get();
+    }
+
+    public Entry get(String key, long version) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        return entry != null && entry.version == version ? entry : null;
+    }
+
+    // body 가 null 이면 ETag 만 기억한다. (304 로 응답해서 본문을 만들지 않은 경우)
+    public void put(String key, long version, String etag, Object body) {
+        if (!enabled || version != this.version.get()) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(version, etag, body));
+        }
+    }
+
+    public String etag(CharSequence content) {
+        String source = instanceId + ':' + bulkGeneration.get() + ':' + content;
+        return "\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // 엔티티 변경이 커밋된 뒤 (Hibernate 커밋 후 이벤트)
+    public void invalidate() {
+        version.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * lastModifiedDateTime 을 거치지 않는 변경 (bulk 연산, JDBC 적재)
+     * 트랜잭션 안이라면 커밋(롤백) 이후에 한 번 더 비운다. (CountCache 와 같은 이유)
+     */
+    public void invalidateBulk() {
+        invalidateBulkNow();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ResponseCache.this);
+                    invalidateBulkNow();
+                }
+            });
+        }
+    }
+
+    private void invalidateBulkNow() {
+        bulkGeneration.incrementAndGet();
+        invalidate();
+    }
+
+    public static class Entry {
+
+        private final long version;
+        private final String etag;
+        private final Object body;
+
+        private Entry(long version, String etag, Object body) {
+            this.version = version;
+            this.etag = etag;
+            this.body = body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public Object getBody() {
+            return body;
+        }
+
+    }
+
+}
@@ -0,0 +1,26 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * bulk 연산은 엔티티 이벤트도 없고 lastModifiedDateTime 도 바꾸지 않으므로 ETag 세대까지 올린다.
+ * (Member / Team repository 의 bulk*, JpaRepository 의 deleteAllInBatch / deleteInBatch / deleteAllByIdInBatch)
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheInvalidationAspect {
+
+    private final ResponseCache responseCache;
+
+    @After("(target(study.datajpa.repository.MemberRepository) || target(study.datajpa.repository.MemberJpaRepository)" +
+            " || target(study.datajpa.repository.TeamRepository) || target(study.datajpa.repository.TeamJpaRepository))" +
+            " && (execution(* bulk*(..)) || execution(* delete*InBatch(..)))")
+    public void invalidateResponseCache() {
+        responseCache.invalidateBulk();
+    }
+
+}
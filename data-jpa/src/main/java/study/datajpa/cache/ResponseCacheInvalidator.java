@@ -0,0 +1,76 @@
+package study.datajpa.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.Team;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Member / Team 의 insert / update / delete 가 커밋되면 ResponseCache 를 무효화한다.
+ * (롤백된 변경은 무시, bulk 연산은 ResponseCacheInvalidationAspect)
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final ResponseCache responseCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        responseCache.invalidate();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        responseCache.invalidate();
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        responseCache.invalidate();
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return Member.class.equals(type) || Team.class.equals(type);
+    }
+
+}
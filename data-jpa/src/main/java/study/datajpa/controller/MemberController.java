@@ -3,35 +3,61 @@ package study.datajpa.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.cache.MemberResponseCache;
 import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.dto.MemberCursor;
+import study.datajpa.entity.member.dto.MemberCursorPage;
 import study.datajpa.entity.member.dto.MemberDto;
+import study.datajpa.entity.member.dto.MemberNameDto;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.search.MemberNameIndex;
+import study.datajpa.search.MemberNameIndexStats;
+import study.datajpa.service.MemberService;
 
 import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final MemberService memberService;
+    private final MemberNameIndex memberNameIndex;
+    private final MemberResponseCache memberResponseCache;
 
     //@PostConstruct
     public void init() {
+        List<Member> members = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
+            members.add(new Member("user" + i, i));
         }
+        memberRepository.saveAllBatched(members);
     }
 
     // Parameter 에 PK 가 들어간 경우 도메인 컨버터 기능 사용 가능하다.
+    // ETag (회원의 lastModifiedDateTime) : If-None-Match 가 같으면 304 (MemberResponseCache)
     @GetMapping("/members1/{id}")
-    public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).orElse(null);
-        if (member == null) { return ""; }
-        return member.getUserName();
+    public String findMember(@PathVariable("id") Long id, WebRequest webRequest) {
+        return memberResponseCache.memberName(id, webRequest);
     }
 
     // 도메인 컨버터로 인해 자동으로 객체가 주입된다.
@@ -50,15 +76,120 @@ public class MemberController {
      * localhost:8080/members?page=0&sort=id,desc&sort=userName,asc
      *
      * 절대로 엔티티를 그대로 반환하면 안된다. 무조건 DTO 사용하기!!
+     *
+     * total count 는 CountCache 를 거친다. (datajpa.count-cache.ttl-millis 만큼 늦게 반영될 수 있음)
+     * 엔티티를 거치지 않고 DTO 로 바로 조회한다. (영속성 컨텍스트, 변경 감지 X)
+     *
+     * ETag (페이지 회원들의 lastModifiedDateTime) + 응답 캐시 : 변경이 없으면 If-None-Match 에 304 로 응답한다. (MemberResponseCache)
      */
     @GetMapping("/members")
-    public Page<MemberDto> memberList(@PageableDefault(size = 5) Pageable pageable) {
-        Page<Member> memberPage = memberRepository.findAll(pageable);
-        return memberPage.map(
+    public Page<MemberDto> memberList(@PageableDefault(size = 5) Pageable pageable, WebRequest webRequest) {
+        return memberResponseCache.memberPage(pageable, webRequest);
+    }
+
+    /**
+     * Slice 모드 : count 쿼리 없이 다음 페이지 유무(hasNext)만 내려준다.
+     * <p>
+     * localhost:8080/members?slice&page=0&sort=id,desc
+     */
+    @GetMapping(value = "/members", params = "slice")
+    public Slice<MemberDto> memberSlice(@PageableDefault(size = 5) Pageable pageable) {
+        Slice<Member> memberSlice = memberRepository.findSliceBy(pageable);
+        return memberSlice.map(
                 member -> new MemberDto(
                         member.getId(), member.getUserName(), member.getTeamName()
                 )
         );
     }
 
+    /**
+     * Keyset(seek) 페이징
+     * 다음 페이지는 응답의 nextCursor 를 그대로 다시 넘기면 된다.
+     * <p>
+     * localhost:8080/members?cursor=&order=userName&size=5 (첫 페이지)
+     * localhost:8080/members?cursor={nextCursor}&size=5
+     *
+     * offset 을 쓰지 않으므로 몇 번째 페이지든 조회 비용이 같다.
+     */
+    @GetMapping(value = "/members", params = "cursor")
+    public MemberCursorPage memberCursorList(@RequestParam("cursor") String cursor,
+                                             @RequestParam(value = "order", defaultValue = MemberCursor.ORDER_ID) String order,
+                                             @RequestParam(value = "size", defaultValue = "5") int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be positive");
+        }
+
+        MemberCursor memberCursor;
+        try {
+            memberCursor = cursor.isEmpty() ? MemberCursor.first(order) : MemberCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+
+        // 다음 페이지 존재 유무를 알기 위해 하나 더 가져온다.
+        List<Member> members = memberCursor.isUserNameOrder()
+                ? memberRepository.findNextByUserNameDesc(memberCursor.getUserName(), memberCursor.getId(), size + 1)
+                : memberRepository.findNextById(memberCursor.getId(), size + 1);
+
+        boolean hasNext = members.size() > size;
+        if (hasNext) {
+            members = members.subList(0, size);
+        }
+
+        List<MemberDto> content = members.stream()
+                .map(member -> new MemberDto(
+                        member.getId(), member.getUserName(), member.getTeamName()
+                ))
+                .collect(Collectors.toList());
+        String nextCursor = hasNext
+                ? MemberCursor.next(memberCursor.getOrder(), members.get(members.size() - 1)).encode()
+                : null;
+        return new MemberCursorPage(content, hasNext, nextCursor);
+    }
+
+    /**
+     * userName 자동완성 (접두사 검색)
+     * DB 를 거치지 않고 메모리 인덱스(MemberNameIndex)에서 userName 순으로 limit 개를 찾는다.
+     * <p>
+     * localhost:8080/members/search?prefix=user1&limit=10
+     */
+    @GetMapping("/members/search")
+    public List<MemberNameDto> searchMembers(@RequestParam("prefix") String prefix,
+                                             @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and 100");
+        }
+        return memberNameIndex.search(prefix, limit);
+    }
+
+    // 인덱스 크기, 대략적인 메모리 사용량, 마지막 재구성 시간, 검색 지연 시간
+    @GetMapping("/members/search/stats")
+    public MemberNameIndexStats memberSearchStats() {
+        return memberNameIndex.stats();
+    }
+
+    /**
+     * 전체 회원 export (CSV / JSON)
+     * Content-Length 없이 chunk 단위로 바로 응답에 쓴다.
+     * <p>
+     * localhost:8080/members/export?format=csv
+     * localhost:8080/members/export?format=json
+     */
+    @GetMapping("/members/export")
+    public void exportMembers(@RequestParam(value = "format", defaultValue = "csv") String format,
+                              HttpServletResponse response) throws IOException {
+        if ("json".equals(format)) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            memberService.exportJson(response.getOutputStream());
+        } else if ("csv".equals(format)) {
+            response.setContentType("text/csv");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader("Content-Disposition", "attachment; filename=\"members.csv\"");
+            Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+            memberService.exportCsv(writer);
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        }
+    }
+
 }
@@ -0,0 +1,114 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import study.datajpa.monitoring.ConnectionHoldListener;
+import study.datajpa.monitoring.ConnectionHoldListener.PoolWindow;
+
+import javax.sql.DataSource;
+
+/**
+ * Hikari 풀 크기를 min-size ~ max-size 안에서 자동으로 조절한다. (datajpa.connection-pool.adaptive.enabled=true)
+ *
+ * interval-millis 마다 지난 구간의 평균 커넥션 획득 시간(풀 대기)과 평균 SQL 실행 시간(DB 지연)을 보고 정한다.
+ * 1. DB 지연이 max-db-latency-millis 를 넘으면 DB 가 병목이다. 커넥션을 늘려도 경합만 커지므로 1 개 줄인다.
+ * 2. 풀 대기가 target-wait-millis 를 넘거나 대기 중인 스레드가 있으면 풀이 병목이다. step 만큼 늘린다.
+ * 3. 대기가 거의 없고 절반 이상이 놀고 있으면 1 개 줄인다.
+ *
+ * > 단일 Hikari DataSource 만 지원한다. (datajpa.routing.enabled=true 면 동작하지 않음)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "datajpa.connection-pool.adaptive", name = "enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+
+    private final HikariDataSource hikariDataSource;
+    private final ConnectionHoldListener connectionHoldListener;
+
+    private final int minSize;
+    private final int maxSize;
+    private final int step;
+    private final double targetWaitMillis;
+    private final double maxDbLatencyMillis;
+
+    public AdaptivePoolSizer(DataSource dataSource,
+                             ConnectionHoldListener connectionHoldListener,
+                             MeterRegistry meterRegistry,
+                             @Value("${datajpa.connection-pool.adaptive.min-size:5}") int minSize,
+                             @Value("${datajpa.connection-pool.adaptive.max-size:30}") int maxSize,
+                             @Value("${datajpa.connection-pool.adaptive.step:2}") int step,
+                             @Value("${datajpa.connection-pool.adaptive.target-wait-millis:5}") double targetWaitMillis,
+                             @Value("${datajpa.connection-pool.adaptive.max-db-latency-millis:50}") double maxDbLatencyMillis) {
+        if (minSize < 1 || maxSize < minSize || step < 1) {
+            throw new IllegalArgumentException("Invalid adaptive pool bounds: min=" + minSize + ", max=" + maxSize + ", step=" + step);
+        }
+        this.hikariDataSource = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        this.connectionHoldListener = connectionHoldListener;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.step = step;
+        this.targetWaitMillis = targetWaitMillis;
+        this.maxDbLatencyMillis = maxDbLatencyMillis;
+
+        if (hikariDataSource == null) {
+            log.warn("Adaptive pool sizing disabled: DataSource is not a single HikariDataSource");
+        } else {
+            Gauge.builder("datasource.pool.adaptive.size", this, AdaptivePoolSizer::currentSize)
+                    .description("Maximum pool size chosen by the adaptive controller")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${datajpa.connection-pool.adaptive.interval-millis:5000}",
+            fixedDelayString = "${datajpa.connection-pool.adaptive.interval-millis:5000}")
+    public void adjust() {
+        PoolWindow window = connectionHoldListener.drainWindow();
+        HikariPoolMXBean pool = hikariDataSource == null ? null : hikariDataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return; // 아직 풀이 시작되지 않음
+        }
+
+        int current = currentSize();
+        int next = nextSize(current, window, pool.getActiveConnections(), pool.getThreadsAwaitingConnection());
+        if (next == current) {
+            return;
+        }
+
+        HikariConfigMXBean config = hikariDataSource.getHikariConfigMXBean();
+        if (next < current && config.getMinimumIdle() > next) {
+            config.setMinimumIdle(next);
+        }
+        config.setMaximumPoolSize(next);
+        log.info("Pool size {} -> {} (acquire {}ms, statement {}ms, active {}, pending {})",
+                current, next,
+                String.format("%.2f", window.getAvgAcquireMillis()), String.format("%.2f", window.getAvgStatementMillis()),
+                pool.getActiveConnections(), pool.getThreadsAwaitingConnection());
+    }
+
+    public int currentSize() {
+        return hikariDataSource == null ? 0 : hikariDataSource.getHikariConfigMXBean().getMaximumPoolSize();
+    }
+
+    int nextSize(int current, PoolWindow window, int active, int pending) {
+        if (window.getAvgStatementMillis() > maxDbLatencyMillis) {
+            return Math.max(minSize, current - 1);
+        }
+        if (window.getAvgAcquireMillis() > targetWaitMillis || pending > 0) {
+            return Math.min(maxSize, current + step);
+        }
+        if (window.getAvgAcquireMillis() < targetWaitMillis / 4 && active < current / 2) {
+            return Math.max(minSize, current - 1);
+        }
+        return Math.max(minSize, Math.min(maxSize, current));
+    }
+
+}
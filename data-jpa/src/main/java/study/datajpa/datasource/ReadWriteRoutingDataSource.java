@@ -0,0 +1,234 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))의 커넥션은 replica 에서, 나머지는 primary 에서 가져온다.
+ *
+ * - replica 선택 : ROUND_ROBIN / LEAST_CONNECTIONS (Hikari 활성 커넥션 수 기준)
+ * - replica 커넥션을 못 가져오면 failureCooldownMillis 동안 제외하고 다음 replica > primary 순서로 넘어간다.
+ * - currentTarget() : 현재 스레드가 쓰고 있는 커넥션의 대상 (커넥션을 내줄 때 설정하고, 커넥션을 닫으면 이전 값으로 되돌린다)
+ *
+ * > 트랜잭션 시작 시점에는 아직 readOnly 플래그가 설정되지 않았으므로 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ *   첫 SQL 을 실행할 때 커넥션을 가져오도록 해야 한다. (RoutingDataSourceConfig)
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_CONNECTIONS
+    }
+
+    // 현재 스레드가 쓰고 있는 커넥션의 대상
+    private static final ThreadLocal<String> CURRENT_TARGET = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Strategy strategy;
+    private final long failureCooldownMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, LongAdder> servedConnections = new ConcurrentHashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      Strategy strategy, long failureCooldownMillis) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.strategy = strategy;
+        this.failureCooldownMillis = failureCooldownMillis;
+    }
+
+    /**
+     * 현재 스레드가 쓰고 있는 커넥션의 대상 (primary, replica 이름), 없으면 null
+     * 트랜잭션 안이라면 그 트랜잭션의 SQL 을 처리하는 대상이다. (SQL 로그에 같이 남긴다)
+     */
+    public static String currentTarget() {
+        return CURRENT_TARGET.get();
+    }
+
+    // 쓰기용 DataSource (라우팅을 거치지 않고 primary 에 바로 붙어야 하는 경우)
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    // 대상별로 내준 커넥션 수
+    public Map<String, Long> servedConnections() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        servedConnections.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    public long servedConnections(String target) {
+        LongAdder count = servedConnections.get(target);
+        return count == null ? 0 : count.sum();
+    }
+
+    // primary, replica 이름 (설정 순서)
+    public List<String> targets() {
+        List<String> targets = new ArrayList<>();
+        targets.add(PRIMARY);
+        replicas.forEach(replica -> targets.add(replica.name));
+        return targets;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            for (Replica replica : candidates()) {
+                try {
+                    return served(replica.name, source.get(replica.dataSource));
+                } catch (SQLException e) {
+                    replica.downUntil = System.currentTimeMillis() + failureCooldownMillis;
+                    log.warn("Replica {} unavailable for {}ms, falling back: {}", replica.name, failureCooldownMillis, e.getMessage());
+                }
+            }
+        }
+        return served(PRIMARY, source.get(primary));
+    }
+
+    // 지금 사용할 수 있는 replica 를 선택 순서대로
+    private List<Replica> candidates() {
+        long now = System.currentTimeMillis();
+        List<Replica> available = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if (replica.downUntil <= now) {
+                available.add(replica);
+            }
+        }
+        if (available.size() < 2) {
+            return available;
+        }
+
+        if (strategy == Strategy.LEAST_CONNECTIONS) {
+            available.sort(Comparator.comparingInt(Replica::activeConnections));
+        } else {
+            Collections.rotate(available, -Math.floorMod(nextReplica.getAndIncrement(), available.size()));
+        }
+        return available;
+    }
+
+    private Connection served(String target, Connection connection) {
+        servedConnections.computeIfAbsent(target, key -> new LongAdder()).increment();
+        log.debug("Routed connection to {}", target);
+
+        // REQUIRES_NEW 처럼 커넥션을 겹쳐 쓰면 안쪽 커넥션을 닫을 때 바깥 대상으로 돌아간다.
+        String previous = CURRENT_TARGET.get();
+        CURRENT_TARGET.set(target);
+        return (Connection) Proxy.newProxyInstance(ReadWriteRoutingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new TargetConnectionHandler(connection, previous));
+    }
+
+    // 컨테이너 종료 시 primary / replica 커넥션 풀을 닫는다.
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+        if (primary instanceof AutoCloseable) {
+            ((AutoCloseable) primary).close();
+        }
+    }
+
+    // close() 에서 CURRENT_TARGET 을 되돌리고 나머지는 실제 커넥션에 넘긴다.
+    private static class TargetConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final String previous;
+        private boolean closed;
+
+        private TargetConnectionHandler(Connection target, String previous) {
+            this.target = target;
+            this.previous = previous;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (previous == null) {
+                            CURRENT_TARGET.remove();
+                        } else {
+                            CURRENT_TARGET.set(previous);
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    private static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long downUntil;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private int activeConnections() {
+            if (dataSource instanceof HikariDataSource) {
+                // 풀이 아직 시작되지 않았으면 null
+                HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+                return pool == null ? 0 : pool.getActiveConnections();
+            }
+            return 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * datajpa.routing.enabled=true 일 때만 등록된다. (기본은 스프링 부트가 만드는 단일 DataSource)
+ *
+ * primary 는 spring.datasource.* (+ spring.datasource.hikari.*), replica 는 datajpa.routing.replicas[*] 설정을 쓴다.
+ * > 복제(primary > replica 동기화)는 DB 가 해야 한다. 여기서는 커넥션만 나눠준다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datajpa.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+
+    // 스프링 부트의 기본 Hikari 설정과 같이 spring.datasource.hikari.* 를 바인딩한다. (pool-name 을 주지 않으면 primary)
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource routingPrimaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return primary;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(HikariDataSource routingPrimaryDataSource,
+                                                                 DataSourceProperties dataSourceProperties,
+                                                                 RoutingDataSourceProperties routingProperties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<RoutingDataSourceProperties.Replica> replicaProperties = routingProperties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            RoutingDataSourceProperties.Replica properties = replicaProperties.get(i);
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(properties.getUrl())
+                    .username(properties.getUsername())
+                    .password(properties.getPassword())
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        return new ReadWriteRoutingDataSource(
+                routingPrimaryDataSource, replicas, routingProperties.getStrategy(), routingProperties.getFailureCooldownMillis()
+        );
+    }
+
+    // 대상별로 내준 커넥션 수 (datasource.routing.connections{target=primary|replica-N})
+    @Bean
+    public MeterBinder routingDataSourceMetrics(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return registry -> readWriteRoutingDataSource.targets().forEach(target ->
+                FunctionCounter.builder("datasource.routing.connections", readWriteRoutingDataSource,
+                                routing -> routing.servedConnections(target))
+                        .tag("target", target)
+                        .description("Connections handed out by the read/write routing DataSource")
+                        .register(registry)
+        );
+    }
+
+    // 트랜잭션의 readOnly 여부가 정해진 뒤(첫 SQL 실행 시점)에 커넥션을 가져온다.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+}
@@ -0,0 +1,31 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled = false;
+    private ReadWriteRoutingDataSource.Strategy strategy = ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN;
+    private long failureCooldownMillis = 5000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package study.datajpa.entity;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 감사(auditing) 값을 트랜잭션 단위로 한 번만 만든다.
+ *
+ * - auditor : 트랜잭션마다 하나 (@CreatedBy, @LastModifiedBy)
+ * - 시각 : 트랜잭션마다 하나 (@CreatedDate, @LastModifiedDate, JpaBaseEntity)
+ *   > 트랜잭션에서 처음 쓸 때 정하고, 같은 트랜잭션의 persist 는 모두 같은 시각을 쓴다. (엔티티마다 LocalDateTime.now() X)
+ *   > flush 가 시작될 때 새 시각으로 바꾼다. (AuditFlushListener) flush 안의 @PreUpdate (dirty checking) 는 flush 시작 시각을 쓴다.
+ *
+ * 엔티티마다 UUID.randomUUID()(SecureRandom, 스레드 간 경합) 를 부르지 않는다.
+ * 트랜잭션 밖에서는 auditor, 시각 모두 호출할 때마다 새로 만든다.
+ */
+public final class AuditContext {
+
+    private String auditor;
+    private LocalDateTime now;
+
+    private AuditContext() {
+    }
+
+    public static String currentAuditor() {
+        AuditContext context = current();
+        if (context == null) {
+            return newAuditorId();
+        }
+        if (context.auditor == null) {
+            context.auditor = newAuditorId();
+        }
+        return context.auditor;
+    }
+
+    public static LocalDateTime now() {
+        AuditContext context = current();
+        if (context == null) {
+            return LocalDateTime.now();
+        }
+        if (context.now == null) {
+            context.now = LocalDateTime.now();
+        }
+        return context.now;
+    }
+
+    // flush 시작 : 이번 flush 와 이후 persist 는 이 시각을 쓴다.
+    static void startFlush() {
+        AuditContext context = current();
+        if (context != null) {
+            context.now = LocalDateTime.now();
+        }
+    }
+
+    private static AuditContext current() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        AuditContext context = (AuditContext) TransactionSynchronizationManager.getResource(AuditContext.class);
+        if (context == null) {
+            AuditContext created = new AuditContext();
+            TransactionSynchronizationManager.bindResource(AuditContext.class, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                // REQUIRES_NEW 로 안쪽 트랜잭션이 시작되면 잠시 떼어낸다.
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditContext.class);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(AuditContext.class, created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditContext.class);
+                }
+            });
+            context = created;
+        }
+        return context;
+    }
+
+    // SecureRandom 대신 ThreadLocalRandom 으로 만든 version 4 UUID (식별용이지 보안용이 아니다)
+    private static String newAuditorId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+}
@@ -0,0 +1,16 @@
+package study.datajpa.entity;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * flush 가 시작되면 AuditContext 의 트랜잭션 시각을 새로 정한다. (@PreUpdate 용)
+ * hibernate.session.events.auto 로 세션마다 등록한다.
+ */
+public class AuditFlushListener extends BaseSessionEventListener {
+
+    @Override
+    public void flushStart() {
+        AuditContext.startFlush();
+    }
+
+}
@@ -22,16 +22,17 @@ public class JpaBaseEntity {
     private LocalDateTime createDateTime;
     private LocalDateTime updateDateTime;
 
+    // 트랜잭션 단위 시각 (flush 가 시작되면 새로 정한다, AuditContext)
     @PrePersist
     public void prePersist() {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = AuditContext.now();
         createDateTime = now;
         updateDateTime = now;
     }
 
     @PreUpdate
     public void preUpdate() {
-        updateDateTime = LocalDateTime.now();
+        updateDateTime = AuditContext.now();
     }
 
     public LocalDateTime getCreateDateTime() {
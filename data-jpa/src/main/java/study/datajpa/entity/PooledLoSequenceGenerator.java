@@ -0,0 +1,50 @@
+package study.datajpa.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * 엔티티별 시퀀스 + pooled-lo 옵티마이저
+ *
+ * 시퀀스 값 하나로 [value, value + allocationSize) 구간의 id 를 메모리에서 할당한다.
+ * allocationSize 는 설정으로 바꿀 수 있다. (우선순위 순서)
+ *
+ * 1) datajpa.id.[sequence_name].allocation_size
+ * 2) datajpa.id.allocation_size
+ * 3) @Parameter(name = "increment_size")
+ * 4) 50
+ *
+ * > spring.jpa.properties 아래에 두면 Hibernate 설정으로 전달된다.
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "datajpa.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService configurationService = serviceRegistry.getService(ConfigurationService.class);
+        String sequenceName = params.getProperty(SEQUENCE_PARAM);
+
+        int defaultSize = ConfigurationHelper.getInt(INCREMENT_PARAM, params, DEFAULT_ALLOCATION_SIZE);
+        Integer globalSize = configurationService.getSetting(
+                ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, defaultSize
+        );
+        Integer allocationSize = configurationService.getSetting(
+                "datajpa.id." + sequenceName + ".allocation_size", StandardConverters.INTEGER, globalSize
+        );
+
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+
+}
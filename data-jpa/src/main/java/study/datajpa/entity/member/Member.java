@@ -4,24 +4,49 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import study.datajpa.entity.BaseEntity;
 
 import javax.persistence.*;
 
 @Getter
 @Entity
-@Table(name = "member")
+@Table(name = "member", indexes = {
+        // Keyset 페이징용 인덱스 (order by 절과 컬럼 순서/방향을 맞춘다)
+        @Index(name = "idx_member_username_id", columnList = "username desc, member_id"),
+        @Index(name = "idx_member_age_username_id", columnList = "age, username desc, member_id")
+})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "userName", "age"})
 
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+
+// userName 을 natural id 로 쓴다. (userName > id 매핑은 natural id 캐시, 엔티티는 2차 캐시)
+// 같은 userName 을 다시 조회하면 SQL 없이 캐시에서 찾는다. (bySimpleNaturalId)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Member.CACHE_REGION)
+@NaturalIdCache(region = Member.NATURAL_ID_CACHE_REGION)
 public class Member extends BaseEntity {
 
+    public static final String CACHE_REGION = "member";
+    public static final String NATURAL_ID_CACHE_REGION = "member-natural-id";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "member_seq")
+    // 엔티티마다 시퀀스를 따로 쓴다. allocation size 만큼 id 를 메모리에서 할당한다. (pooled-lo)
+    @GenericGenerator(name = "member_seq", strategy = "study.datajpa.entity.PooledLoSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "member_seq"))
     @Column(name = "member_id")
     private Long id;
 
+    // 변경 가능(changeInfo)한 natural id > 이름이 바뀌면 Hibernate 가 natural id 캐시의 이전 이름을 지운다.
+    // Hibernate 가 username 에 unique 제약 조건(인덱스)을 만든다.
+    @NaturalId(mutable = true)
     @Column(name = "username")
     private String userName;
     private int age;
@@ -4,6 +4,11 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import study.datajpa.entity.BaseEntity;
 
 import javax.persistence.*;
@@ -15,10 +20,20 @@ import java.util.List;
 @Table(name = "team")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+
+// 2차 캐시 : 읽기 위주의 엔티티라서 캐시해 둔다. (크기, TTL 은 ehcache.xml 참고)
+// 등록/수정/삭제는 Hibernate 가 커밋 시점에 캐시를 갱신/무효화한다. (READ_WRITE)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Team.CACHE_REGION)
 public class Team extends BaseEntity {
 
+    public static final String CACHE_REGION = "team";
+    public static final String QUERY_CACHE_REGION = "team-query";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "team_seq")
+    // 엔티티마다 시퀀스를 따로 쓴다. allocation size 만큼 id 를 메모리에서 할당한다. (pooled-lo)
+    @GenericGenerator(name = "team_seq", strategy = "study.datajpa.entity.PooledLoSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "team_seq"))
     @Column(name = "team_id")
     private Long id;
 
@@ -0,0 +1,75 @@
+package study.datajpa.entity.member.dto;
+
+import lombok.Getter;
+import study.datajpa.entity.member.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset(seek) 페이징 커서
+ *
+ * 마지막으로 읽은 행의 정렬 키를 들고 다닌다.
+ * 클라이언트에는 base64 로 인코딩한 불투명(opaque) 문자열로만 노출한다.
+ *
+ * - id 정렬 : (id)
+ * - userName 정렬 : (userName desc nulls last, id)
+ *   > userName 이 null 이면 세 번째 토큰을 붙이지 않는다. ("" 과 null 을 구분해야 null 구간에서 이어서 읽을 수 있다)
+ */
+@Getter
+public class MemberCursor {
+
+    public static final String ORDER_ID = "id";
+    public static final String ORDER_USER_NAME = "userName";
+
+    private static final String DELIMITER = "|";
+
+    private final String order;
+    private final Long id;
+    private final String userName;
+
+    private MemberCursor(String order, Long id, String userName) {
+        if (!ORDER_ID.equals(order) && !ORDER_USER_NAME.equals(order)) {
+            throw new IllegalArgumentException("Unsupported cursor order: " + order);
+        }
+        this.order = order;
+        this.id = id;
+        this.userName = userName;
+    }
+
+    // 첫 페이지 (last-seen key 없음)
+    public static MemberCursor first(String order) {
+        return new MemberCursor(order, null, null);
+    }
+
+    public static MemberCursor next(String order, Member last) {
+        return new MemberCursor(order, last.getId(), ORDER_USER_NAME.equals(order) ? last.getUserName() : null);
+    }
+
+    public boolean isUserNameOrder() {
+        return ORDER_USER_NAME.equals(order);
+    }
+
+    public String encode() {
+        String raw = order + DELIMITER + id;
+        if (userName != null) {
+            raw += DELIMITER + userName;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        // userName 에 구분자가 들어갈 수 있으므로 마지막 토큰은 자르지 않는다.
+        String[] tokens = raw.split("\\" + DELIMITER, 3);
+        if (tokens.length < 2) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+
+        String order = tokens[0];
+        Long id = Long.valueOf(tokens[1]);
+        String userName = ORDER_USER_NAME.equals(order) && tokens.length == 3 ? tokens[2] : null;
+        return new MemberCursor(order, id, userName);
+    }
+
+}
@@ -0,0 +1,20 @@
+package study.datajpa.entity.member.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class MemberCursorPage {
+
+    private final List<MemberDto> content;
+    private final boolean hasNext;
+    private final String nextCursor; // 마지막 페이지면 null
+
+    public MemberCursorPage(List<MemberDto> content, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+}
@@ -0,0 +1,16 @@
+package study.datajpa.entity.member.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberNameDto {
+
+    private Long id;
+    private String userName;
+
+    public MemberNameDto(Long id, String userName) {
+        this.id = id;
+        this.userName = userName;
+    }
+
+}
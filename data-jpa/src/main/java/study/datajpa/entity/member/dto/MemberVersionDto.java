@@ -0,0 +1,21 @@
+package study.datajpa.entity.member.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// ETag 계산용 : 응답(MemberDto)에 영향을 주는 엔티티들의 마지막 수정 시각
+@Data
+public class MemberVersionDto {
+
+    private Long id;
+    private LocalDateTime memberLastModified;
+    private LocalDateTime teamLastModified; // 팀이 없으면 null
+
+    public MemberVersionDto(Long id, LocalDateTime memberLastModified, LocalDateTime teamLastModified) {
+        this.id = id;
+        this.memberLastModified = memberLastModified;
+        this.teamLastModified = teamLastModified;
+    }
+
+}
@@ -0,0 +1,128 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 커넥션 풀 텔레메트리 (p6spy)
+ *
+ * - datasource.connection.hold (Timer) : 커넥션을 빌려서 반납할 때까지 걸린 시간 / tag : repository, method
+ *   > 커넥션으로 처음 SQL 을 실행한 repository 메서드 기준이다. (서비스 트랜잭션이면 그 안의 첫 repository 메서드)
+ *   > repository 밖에서 실행한 SQL 만 있으면 none
+ * - 풀 대기 시간 / active / idle / pending 은 스프링 부트가 등록하는 hikaricp.connections.* 지표를 쓴다.
+ *
+ * AdaptivePoolSizer 가 쓰도록 구간(window)별 평균 커넥션 획득 시간, SQL 실행 시간도 모은다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "datajpa.connection-pool.telemetry", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ConnectionHoldListener extends SimpleJdbcEventListener {
+
+    public static final String HOLD = "datasource.connection.hold";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<ConnectionInformation, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder statementNanos = new LongAdder();
+    private final LongAdder statementCount = new LongAdder();
+
+    @Override
+    public void onAfterGetConnection(ConnectionInformation connectionInformation, SQLException e) {
+        if (e != null) {
+            return;
+        }
+        acquireNanos.add(connectionInformation.getTimeToGetConnectionNs());
+        acquireCount.increment();
+        holds.put(connectionInformation, new Hold(System.nanoTime()));
+    }
+
+    @Override
+    public void onBeforeAnyExecute(StatementInformation statementInformation) {
+        Hold hold = holds.get(statementInformation.getConnectionInformation());
+        if (hold != null && hold.owner == null) {
+            hold.owner = RepositoryMetricsAspect.currentMethod();
+        }
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        statementNanos.add(timeElapsedNanos);
+        statementCount.increment();
+    }
+
+    @Override
+    public void onAfterConnectionClose(ConnectionInformation connectionInformation, SQLException e) {
+        Hold hold = holds.remove(connectionInformation);
+        if (hold != null) {
+            timer(hold.owner).record(System.nanoTime() - hold.acquiredAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 지난 호출 이후 구간의 평균값을 돌려주고 초기화한다.
+     */
+    public PoolWindow drainWindow() {
+        return new PoolWindow(
+                average(acquireNanos.sumThenReset(), acquireCount.sumThenReset()),
+                average(statementNanos.sumThenReset(), statementCount.sumThenReset())
+        );
+    }
+
+    private Timer timer(String[] owner) {
+        String repository = owner == null ? NONE : owner[0];
+        String method = owner == null ? NONE : owner[1];
+        return timers.computeIfAbsent(repository + "." + method, key -> Timer.builder(HOLD)
+                .description("Time a connection is held between checkout and close")
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(meterRegistry));
+    }
+
+    private static double average(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1_000_000.0 / count;
+    }
+
+    private static class Hold {
+
+        private final long acquiredAt;
+        private volatile String[] owner;
+
+        private Hold(long acquiredAt) {
+            this.acquiredAt = acquiredAt;
+        }
+
+    }
+
+    @Getter
+    public static class PoolWindow {
+
+        private final double avgAcquireMillis;
+        private final double avgStatementMillis;
+
+        public PoolWindow(double avgAcquireMillis, double avgStatementMillis) {
+            this.avgAcquireMillis = avgAcquireMillis;
+            this.avgStatementMillis = avgStatementMillis;
+        }
+
+    }
+
+}
@@ -0,0 +1,160 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 모든 repository 메서드 호출을 Micrometer 로 기록한다.
+ *
+ * - repository.invocations (Timer) : 지연 시간, 호출 수 / tag : repository, method, outcome(success, error), exception
+ * - repository.result.size (DistributionSummary) : 반환한 행 수 (Collection, Page / Slice, Optional, 단건)
+ *
+ * 대상 : 스프링 데이터 JPA repository (MemberRepository, TeamRepository, ItemRepository) + @Repository 클래스 (MemberJpaRepository ...)
+ * 백분위 / 히스토그램은 management.metrics.distribution.* 설정으로 켠다. (application.yml)
+ *
+ * > 호출마다 태그를 만들지 않도록 (repository, method) 별로 Timer / DistributionSummary 를 캐시해 둔다.
+ *
+ * 실행 중인 가장 바깥쪽 repository 메서드는 currentMethod() 로 알 수 있다. (ConnectionHoldListener 가 커넥션 점유 시간 태그로 사용)
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "datajpa.repository-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    public static final String INVOCATIONS = "repository.invocations";
+    public static final String RESULT_SIZE = "repository.result.size";
+
+    private final MeterRegistry meterRegistry;
+
+    private static final ThreadLocal<MethodMeters> current = new ThreadLocal<>();
+
+    private final Map<Class<?>, Map<Method, MethodMeters>> meters = new ConcurrentHashMap<>();
+
+    /**
+     * 현재 스레드에서 실행 중인 가장 바깥쪽 repository 메서드 ({repository, method}), 없으면 null
+     */
+    public static String[] currentMethod() {
+        MethodMeters methodMeters = current.get();
+        return methodMeters == null ? null : new String[]{methodMeters.repository, methodMeters.method};
+    }
+
+    @Around("target(org.springframework.data.repository.Repository) || within(@org.springframework.stereotype.Repository *)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMeters methodMeters = methodMeters(joinPoint);
+        boolean outermost = current.get() == null;
+        if (outermost) {
+            current.set(methodMeters);
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            methodMeters.error(e).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        } finally {
+            if (outermost) {
+                current.remove();
+            }
+        }
+        methodMeters.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        long resultSize = resultSize(result);
+        if (resultSize >= 0) {
+            methodMeters.resultSize.record(resultSize);
+        }
+        return result;
+    }
+
+    private MethodMeters methodMeters(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return meters.computeIfAbsent(joinPoint.getThis().getClass(), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, key -> new MethodMeters(repositoryName(joinPoint), method.getName()));
+    }
+
+    // 스프링 데이터 프록시는 구현체(SimpleJpaRepository) 대신 우리가 선언한 인터페이스 이름을 쓴다.
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        for (Class<?> type : joinPoint.getThis().getClass().getInterfaces()) {
+            if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+    }
+
+    // 행 수를 알 수 없는 반환 타입(void, 숫자, Stream ...)은 -1
+    private static long resultSize(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof java.util.stream.BaseStream) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private class MethodMeters {
+
+        private final String repository;
+        private final String method;
+        private final Timer success;
+        private final DistributionSummary resultSize;
+        private final Map<Class<?>, Timer> errors = new ConcurrentHashMap<>();
+
+        private MethodMeters(String repository, String method) {
+            this.repository = repository;
+            this.method = method;
+            this.success = timer("success", "none");
+            this.resultSize = DistributionSummary.builder(RESULT_SIZE)
+                    .description("Rows returned by a repository method")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(meterRegistry);
+        }
+
+        private Timer error(Throwable e) {
+            return errors.computeIfAbsent(e.getClass(), type -> timer("error", type.getSimpleName()));
+        }
+
+        private Timer timer(String outcome, String exception) {
+            return Timer.builder(INVOCATIONS)
+                    .description("Repository method invocations")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry);
+        }
+
+    }
+
+}
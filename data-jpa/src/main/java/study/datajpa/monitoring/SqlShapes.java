@@ -0,0 +1,47 @@
+package study.datajpa.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 정규화 : 리터럴을 ? 로 바꿔서 같은 모양의 SQL 을 하나로 묶는다.
+ *
+ * - 'abc' > ?, 123 / 1.5 > ?
+ * - in (?, ?, ?) > in (?...)
+ * - 공백 / 줄바꿈 정리 (format_sql)
+ *
+ * Hibernate 가 만드는 SQL 은 종류가 많지 않으므로 원본 SQL 별 결과를 캐시한다. (MAX_CACHED 개까지)
+ */
+final class SqlShapes {
+
+    private static final int MAX_CACHED = 10_000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private SqlShapes() {
+    }
+
+    static String normalize(String sql) {
+        String shape = cache.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+
+        shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?...)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+
+        if (cache.size() < MAX_CACHED) {
+            cache.put(sql, shape);
+        }
+        return shape;
+    }
+
+}
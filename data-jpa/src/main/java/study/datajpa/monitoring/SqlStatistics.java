@@ -0,0 +1,61 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 하나의 범위(HTTP 요청, 트랜잭션, 테스트 블록) 동안 실행된 SQL 통계
+ *
+ * 스레드에 묶여서만 사용되므로 동기화하지 않는다. (SqlStatisticsHolder 참고)
+ */
+@Getter
+public class SqlStatistics {
+
+    private final String name;
+    private int statementCount;
+    private long rowCount;
+    private long jdbcNanos;
+
+    // SQL 모양(바인딩 파라미터가 ? 인 SQL) 별 실행 횟수
+    private final Map<String, Integer> statementShapes = new HashMap<>();
+
+    public SqlStatistics(String name) {
+        this.name = name;
+    }
+
+    void recordStatement(String sql, long elapsedNanos) {
+        statementCount++;
+        jdbcNanos += elapsedNanos;
+        statementShapes.merge(sql, 1, Integer::sum);
+    }
+
+    void recordRow(long elapsedNanos) {
+        rowCount++;
+        jdbcNanos += elapsedNanos;
+    }
+
+    /**
+     * 같은 모양의 SQL 이 threshold 번 이상 실행되었으면 N + 1 로 의심한다.
+     * ex) select ... from team where team_id=? 가 페이지 크기만큼 반복
+     */
+    public List<String> suspectedNPlusOne(int threshold) {
+        List<String> suspects = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : statementShapes.entrySet()) {
+            if (entry.getValue() >= threshold) {
+                suspects.add(entry.getValue() + "x " + entry.getKey());
+            }
+        }
+        return suspects;
+    }
+
+    public String summary() {
+        return String.format("[%s] statements=%d, rows=%d, jdbcTime=%dms",
+                name, statementCount, rowCount, TimeUnit.NANOSECONDS.toMillis(jdbcNanos));
+    }
+
+}
@@ -0,0 +1,36 @@
+package study.datajpa.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * HTTP 요청 하나 동안 실행된 SQL 통계를 모아서 남긴다.
+ * (같은 SQL 이 반복되면 N + 1 의심 로그)
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private final SqlStatisticsListener sqlStatisticsListener;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatisticsHolder.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatisticsHolder.close(statistics);
+            sqlStatisticsListener.report(statistics);
+        }
+    }
+
+}
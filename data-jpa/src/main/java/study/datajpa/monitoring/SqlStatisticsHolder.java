@@ -0,0 +1,69 @@
+package study.datajpa.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 현재 스레드에서 열려 있는 SqlStatistics 범위들
+ *
+ * 범위는 중첩될 수 있다. (HTTP 요청 > 트랜잭션 > QueryBudget)
+ * SQL 한 건은 열려 있는 모든 범위에 기록된다.
+ */
+public final class SqlStatisticsHolder {
+
+    private static final ThreadLocal<Deque<SqlStatistics>> SCOPES = new ThreadLocal<>();
+
+    private SqlStatisticsHolder() {
+    }
+
+    public static SqlStatistics open(String name) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+
+        SqlStatistics statistics = new SqlStatistics(name);
+        scopes.push(statistics);
+        return statistics;
+    }
+
+    public static void close(SqlStatistics statistics) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+
+        scopes.remove(statistics);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+    }
+
+    static boolean isRecording() {
+        return SCOPES.get() != null;
+    }
+
+    static void recordStatement(String sql, long elapsedNanos) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+
+        for (SqlStatistics statistics : scopes) {
+            statistics.recordStatement(sql, elapsedNanos);
+        }
+    }
+
+    static void recordRow(long elapsedNanos) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+
+        for (SqlStatistics statistics : scopes) {
+            statistics.recordRow(elapsedNanos);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * p6spy 이벤트 리스너
+ * p6spy-spring-boot-starter 가 JdbcEventListener 빈을 자동으로 등록해준다.
+ *
+ * - 열려 있는 범위(SqlStatisticsHolder)에 SQL 실행 횟수, 조회 row 수, JDBC 시간을 쌓는다.
+ * - 트랜잭션 안에서 처음 SQL 이 실행되면 트랜잭션 범위를 열고, 트랜잭션이 끝날 때 닫는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsListener extends SimpleJdbcEventListener {
+
+    private static final Object TRANSACTION_SCOPE_KEY = new Object();
+
+    private final int nPlusOneThreshold;
+
+    public SqlStatisticsListener(@Value("${datajpa.sql-statistics.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        openTransactionScopeIfNeeded();
+        SqlStatisticsHolder.recordStatement(statementInformation.getSql(), timeElapsedNanos);
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        if (hasNext && SqlStatisticsHolder.isRecording()) {
+            SqlStatisticsHolder.recordRow(timeElapsedNanos);
+        }
+    }
+
+    public void report(SqlStatistics statistics) {
+        List<String> suspects = statistics.suspectedNPlusOne(nPlusOneThreshold);
+        if (!suspects.isEmpty()) {
+            log.warn("Suspected N+1 {} : {}", statistics.summary(), suspects);
+        } else if (log.isDebugEnabled()) {
+            log.debug(statistics.summary());
+        }
+    }
+
+    private void openTransactionScopeIfNeeded() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(TRANSACTION_SCOPE_KEY)) {
+            return;
+        }
+
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        SqlStatistics statistics = SqlStatisticsHolder.open("tx " + (name == null ? "" : name));
+        TransactionSynchronizationManager.bindResource(TRANSACTION_SCOPE_KEY, statistics);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SCOPE_KEY);
+                SqlStatisticsHolder.close(statistics);
+                report(statistics);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,37 @@
+package study.datajpa.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * SQL 모양별 상위 N 개 리포트
+ * <p>
+ * GET localhost:8080/actuator/sqlstats?limit=20&orderBy=total (total, count, max, p99, rows)
+ * DELETE localhost:8080/actuator/sqlstats (초기화)
+ */
+@Component
+@Endpoint(id = "sqlstats")
+@ConditionalOnProperty(name = "datajpa.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SqlStatsEndpoint {
+
+    private final StatementAggregator statementAggregator;
+
+    @ReadOperation
+    public List<StatementAggregator.ShapeReport> top(@Nullable Integer limit, @Nullable String orderBy) {
+        return statementAggregator.top(limit == null ? 20 : limit, orderBy == null ? "total" : orderBy);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statementAggregator.reset();
+    }
+
+}
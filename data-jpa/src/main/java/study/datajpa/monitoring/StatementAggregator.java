@@ -0,0 +1,174 @@
+package study.datajpa.monitoring;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * SQL 모양별 누적 통계 (애플리케이션 전체)
+ *
+ * - 실행 횟수, 총 / 최대 시간, 처리 행 수, p99 (로그 스케일 버킷 히스토그램)
+ * - 기록은 락 없이 LongAdder / AtomicLongArray 로 한다.
+ * - 모양 수는 max-shapes 개까지만 따로 모으고, 넘치면 OTHER 로 합친다. (메모리 상한)
+ */
+@Component
+@ConditionalOnProperty(name = "datajpa.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementAggregator {
+
+    public static final String OTHER = "(other)";
+
+    private final int maxShapes;
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+    public StatementAggregator(@Value("${datajpa.sql-statistics.max-shapes:1000}") int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    public void recordStatement(String sql, long elapsedNanos) {
+        stats(sql).recordStatement(elapsedNanos);
+    }
+
+    public void recordRows(String sql, long rows) {
+        stats(sql).rows.add(rows);
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    /**
+     * 상위 limit 개 SQL 모양
+     * orderBy : total(총 시간, 기본값), count, max, p99, rows
+     */
+    public List<ShapeReport> top(int limit, String orderBy) {
+        return shapes.entrySet().stream()
+                .map(entry -> new ShapeReport(entry.getKey(), entry.getValue()))
+                .sorted(comparator(orderBy).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private ShapeStats stats(String sql) {
+        String shape = SqlShapes.normalize(sql);
+        ShapeStats stats = shapes.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        if (shapes.size() >= maxShapes) {
+            return shapes.computeIfAbsent(OTHER, key -> new ShapeStats());
+        }
+        return shapes.computeIfAbsent(shape, key -> new ShapeStats());
+    }
+
+    private static Comparator<ShapeReport> comparator(String orderBy) {
+        if ("count".equals(orderBy)) {
+            return Comparator.comparingLong(ShapeReport::getCount);
+        }
+        if ("max".equals(orderBy)) {
+            return Comparator.comparingDouble(ShapeReport::getMaxMillis);
+        }
+        if ("p99".equals(orderBy)) {
+            return Comparator.comparingDouble(ShapeReport::getP99Millis);
+        }
+        if ("rows".equals(orderBy)) {
+            return Comparator.comparingLong(ShapeReport::getRows);
+        }
+        return Comparator.comparingDouble(ShapeReport::getTotalMillis);
+    }
+
+    static class ShapeStats {
+
+        // 마이크로초 기준, 2의 거듭제곱 구간을 4개로 나눈 버킷 (상대 오차 25% 이내)
+        private static final int BUCKETS = 160;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        void recordStatement(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            histogram.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        }
+
+        // 누적 개수가 percentile 을 넘는 버킷의 상한 (마이크로초)
+        long percentileMicros(double percentile) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long target = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(BUCKETS - 1);
+        }
+
+        static int bucket(long micros) {
+            if (micros < 4) {
+                return (int) Math.max(0, micros);
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) ((micros >>> (exponent - 2)) & 3);
+            return Math.min(BUCKETS - 1, exponent * 4 + sub - 4);
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < 4) {
+                return bucket + 1;
+            }
+            int exponent = (bucket + 4) / 4;
+            int sub = (bucket + 4) % 4;
+            return (5L + sub) << (exponent - 2);
+        }
+
+    }
+
+    @Getter
+    public static class ShapeReport {
+
+        private final String sql;
+        private final long count;
+        private final double totalMillis;
+        private final double avgMillis;
+        private final double maxMillis;
+        private final double p99Millis;
+        private final long rows;
+
+        private ShapeReport(String sql, ShapeStats stats) {
+            this.sql = sql;
+            this.count = stats.count.sum();
+            this.totalMillis = stats.totalNanos.sum() / 1_000_000.0;
+            this.avgMillis = count == 0 ? 0 : totalMillis / count;
+            this.maxMillis = stats.maxNanos.get() / 1_000_000.0;
+            this.p99Millis = stats.percentileMicros(0.99) / 1_000.0;
+            this.rows = stats.rows.sum();
+        }
+
+    }
+
+}
@@ -0,0 +1,174 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+import study.datajpa.datasource.ReadWriteRoutingDataSource;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * p6spy 이벤트를 StatementAggregator 에 모은다.
+ *
+ * slow-threshold-millis 를 넘는 SQL 은 바인딩 값을 채운 SQL 과 H2 EXPLAIN 실행 계획을 같이 로그로 남긴다.
+ * > 읽기/쓰기 라우팅을 켰으면 SQL 을 처리한 대상(primary, replica 이름)도 남긴다. (ReadWriteRoutingDataSource.currentTarget)
+ * > EXPLAIN 은 호출한 스레드(커넥션)를 붙잡지 않도록 별도 스레드에서 자기 커넥션으로 실행한다.
+ *   p6spy 로 감싸지 않은 원본 커넥션 풀(primary)에서 가져오므로 다시 집계되지 않는다.
+ * > explain-min-interval-millis 에 한 번까지만 실행하고, 대기열이 차면 실행 계획 없이 바로 로그를 남긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.sql-statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementAggregatorListener extends SimpleJdbcEventListener {
+
+    private static final int EXPLAIN_QUEUE_SIZE = 16;
+
+    private final StatementAggregator statementAggregator;
+    private final ObjectProvider<DataSource> dataSource; // p6spy 가 DataSource 를 감쌀 때 이 빈을 쓰므로 늦게 꺼낸다.
+    private final long slowThresholdNanos;
+    private final boolean explainSlow;
+    private final long explainMinIntervalNanos;
+
+    private final AtomicLong nextExplainAt = new AtomicLong(System.nanoTime());
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE),
+            runnable -> {
+                Thread thread = new Thread(runnable, "slow-sql-explain");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public StatementAggregatorListener(StatementAggregator statementAggregator,
+                                       ObjectProvider<DataSource> dataSource,
+                                       @Value("${datajpa.sql-statistics.slow-threshold-millis:200}") long slowThresholdMillis,
+                                       @Value("${datajpa.sql-statistics.explain-slow:true}") boolean explainSlow,
+                                       @Value("${datajpa.sql-statistics.explain-min-interval-millis:1000}") long explainMinIntervalMillis) {
+        this.statementAggregator = statementAggregator;
+        this.dataSource = dataSource;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.explainSlow = explainSlow;
+        this.explainMinIntervalNanos = TimeUnit.MILLISECONDS.toNanos(explainMinIntervalMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        statementAggregator.recordStatement(statementInformation.getSql(), timeElapsedNanos);
+        if (timeElapsedNanos >= slowThresholdNanos) {
+            logSlowStatement(statementInformation, timeElapsedNanos);
+        }
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(PreparedStatementInformation statementInformation, long timeElapsedNanos, int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, rowCount, e);
+        recordRows(statementInformation.getSql(), rowCount);
+    }
+
+    @Override
+    public void onAfterExecuteUpdate(StatementInformation statementInformation, long timeElapsedNanos, String sql, int rowCount, SQLException e) {
+        super.onAfterExecuteUpdate(statementInformation, timeElapsedNanos, sql, rowCount, e);
+        recordRows(statementInformation.getSql(), rowCount);
+    }
+
+    @Override
+    public void onAfterExecuteBatch(StatementInformation statementInformation, long timeElapsedNanos, int[] updateCounts, SQLException e) {
+        super.onAfterExecuteBatch(statementInformation, timeElapsedNanos, updateCounts, e);
+        if (updateCounts != null) {
+            long rows = 0;
+            for (int updateCount : updateCounts) {
+                rows += Math.max(updateCount, 0); // SUCCESS_NO_INFO(-2) 는 세지 않는다.
+            }
+            recordRows(statementInformation.getSql(), rows);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        if (hasNext) {
+            statementAggregator.recordRows(resultSetInformation.getSql(), 1);
+        }
+    }
+
+    private void recordRows(String sql, long rows) {
+        if (rows > 0) {
+            statementAggregator.recordRows(sql, rows);
+        }
+    }
+
+    private void logSlowStatement(StatementInformation statementInformation, long timeElapsedNanos) {
+        String sqlWithValues = statementInformation.getSqlWithValues();
+        long millis = TimeUnit.NANOSECONDS.toMillis(timeElapsedNanos);
+        // 라우팅 중이면 SQL 을 처리한 대상 (호출한 스레드에서 읽어 둔다)
+        String target = ReadWriteRoutingDataSource.currentTarget();
+        String on = target == null ? "" : " on " + target;
+        if (explainSlow && isSelect(sqlWithValues) && tryAcquireExplain()) {
+            try {
+                explainExecutor.execute(() -> log.warn("Slow SQL{} ({}ms): {}{}plan: {}",
+                        on, millis, sqlWithValues, System.lineSeparator(), explain(sqlWithValues)));
+                return;
+            } catch (RejectedExecutionException e) {
+                // 대기열이 찼다. > 실행 계획 없이 남긴다.
+            }
+        }
+        log.warn("Slow SQL{} ({}ms): {}", on, millis, sqlWithValues);
+    }
+
+    // explain-min-interval-millis 마다 한 번
+    private boolean tryAcquireExplain() {
+        long now = System.nanoTime();
+        long next = nextExplainAt.get();
+        return now - next >= 0 && nextExplainAt.compareAndSet(next, now + explainMinIntervalNanos);
+    }
+
+    // select 만 실행 계획을 본다.
+    private static boolean isSelect(String sql) {
+        return sql.trim().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    private String explain(String sql) {
+        try (Connection connection = rawDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1));
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    // p6spy(DecoratedDataSource)를 건너뛰고 커넥션 풀에서 바로 가져온다. (라우팅 DataSource 면 primary)
+    private DataSource rawDataSource() {
+        DataSource bean = dataSource.getObject();
+        ReadWriteRoutingDataSource routing = DataSourceUnwrapper.unwrap(bean, ReadWriteRoutingDataSource.class);
+        DataSource target = routing != null ? routing.getPrimary() : bean;
+        HikariDataSource hikariDataSource = DataSourceUnwrapper.unwrap(target, HikariDataSource.class);
+        return hikariDataSource != null ? hikariDataSource : target;
+    }
+
+}
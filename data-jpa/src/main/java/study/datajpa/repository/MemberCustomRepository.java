@@ -1,11 +1,120 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.Team;
+import study.datajpa.entity.member.dto.MemberDto;
+import study.datajpa.entity.member.dto.MemberVersionDto;
+import study.datajpa.entity.member.projections.MemberProjection;
+import study.datajpa.repository.support.BulkUpdateResult;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface MemberCustomRepository {
 
     List<Member> findMemberCustom();
 
+    /**
+     * Keyset(seek) 페이징
+     * offset 페이징처럼 앞 페이지를 읽고 버리지 않고, 마지막으로 읽은 키 다음부터 인덱스를 탄다.
+     * > 페이지가 깊어져도 응답 속도가 일정하다.
+     *
+     * lastId 가 null 이면 첫 페이지를 조회한다.
+     * userName 정렬에서 null 은 맨 뒤에 온다. (desc nulls last) > lastId 가 있고 lastUserName 이 null 이면 null 구간의 다음 행부터
+     */
+    List<Member> findNextById(Long lastId, int limit); // order by id
+    List<Member> findNextByUserNameDesc(String lastUserName, Long lastId, int limit); // order by userName desc nulls last, id
+
+    /**
+     * Paging + count 캐시
+     * total count 는 CountCache 에서 가져오고, 캐시가 비어 있을 때만 count 쿼리를 실행한다.
+     * 마지막 페이지처럼 content 만으로 total 을 알 수 있으면 count 쿼리 자체를 생략한다.
+     */
+    Page<Member> findAllWithCachedCount(Pageable pageable);
+    Page<Member> findByAgeWithCachedCount(int age, Pageable pageable);
+
+    /**
+     * DTO 로 바로 조회하는 Paging
+     * 엔티티를 영속성 컨텍스트에 올리지 않으므로 스냅샷, 지연 로딩(Team)이 없다.
+     * count 는 join 없이 Member 만 센다. (CountCache 사용)
+     */
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    /**
+     * ETag 계산용 가벼운 조회 (id, Member / Team 의 lastModifiedDateTime 만 읽는다)
+     * findMemberDtoPage 와 같은 정렬, 페이징, count 를 쓴다.
+     */
+    Page<MemberVersionDto> findMemberVersionPage(Pageable pageable);
+    Optional<MemberVersionDto> findMemberVersion(Long id);
+
+    /**
+     * 프록시 없는 인터페이스 프로젝션 (ProjectionMaterializer)
+     * MemberRepository 의 findProjectionByUserName / findNestedProjectionByUserName / findByNativeProjection 과 같은 결과를
+     * 스프링 데이터 프록시 대신 미리 생성한 구현 클래스로 돌려준다.
+     *
+     * type : MemberUserNameOnly, NestedClosedProjections, MemberProjection ... (Member 에서 값을 읽을 수 있는 인터페이스)
+     */
+    <T> List<T> findMaterializedByUserName(String userName, Class<T> type);
+    Page<MemberProjection> findByNativeProjectionMaterialized(Pageable pageable);
+    Slice<MemberProjection> findSliceByNativeProjectionMaterialized(Pageable pageable);
+
+    /**
+     * 대량 등록
+     * - JDBC batch (hibernate.jdbc.batch_size) 로 insert 를 묶어서 보낸다.
+     * - batch_size 건마다 flush + clear 해서 영속성 컨텍스트가 계속 커지지 않게 한다.
+     *
+     * > clear 를 하므로 호출 전에 영속성 컨텍스트에 있던 엔티티도 전부 준영속 상태가 된다.
+     * > Team 은 미리 저장되어 있어야 한다. (cascade X)
+     */
+    long saveAllBatched(Iterable<? extends Member> members);
+
+    /**
+     * 대량 in 절 조회
+     * 이름 목록을 2의 거듭제곱 크기 청크로 나눠서 조회하고, 결과를 합치면서 중복을 제거한다. (InListChunks)
+     * 청크 크기는 datajpa.in-list.chunk-size
+     */
+    List<Member> findByNamesChunked(Collection<String> names);
+
+    /**
+     * 청크를 별도 스레드(datajpa.in-list.parallelism 개)에서 각자의 트랜잭션/커넥션으로 동시에 조회한다.
+     * > 반환된 Member 는 준영속 상태다. (Team 은 페치 조인으로 같이 가져온다)
+     * > 트랜잭션 안에서 호출하면 커넥션을 두 개씩 쥐게 되므로 findByNamesChunked 로 대신 조회한다. (결과는 영속 상태)
+     */
+    List<Member> findByNamesParallel(Collection<String> names);
+
+    /**
+     * 파티션 단위 bulkAgePlus
+     * id 범위(datajpa.bulk-update.partition-size)로 나눠서 파티션마다 짧은 트랜잭션으로 update 한다.
+     * 파티션은 datajpa.bulk-update.workers 개 스레드가 나눠서 실행하고, 실패한 파티션은 max-attempts 까지 다시 실행한다.
+     * > 실패한 파티션은 롤백된 상태이므로 다시 실행해도 한 행이 두 번 증가하지 않는다.
+     * > 전체가 하나의 트랜잭션이 아니므로 트랜잭션 밖에서 호출해야 한다. (중간에 실패하면 앞 파티션은 이미 커밋되어 있다)
+     */
+    BulkUpdateResult bulkAgePlusPartitioned(int age);
+
+    /**
+     * 영속성 컨텍스트를 통째로 비우지 않는 벌크 연산
+     *
+     * bulkAgePlus 는 clearAutomatically 라서 앞에서 조회한 엔티티를 전부 다시 읽어야 한다.
+     * 아래 연산들은 영속성 컨텍스트에 있는 Member 중 벌크 연산 대상만 refresh(삭제는 detach) 하고 나머지는 그대로 둔다.
+     * > 대상 Member 가 들어있는 Team.members 컬렉션이 초기화되어 있으면 그 Team 도 refresh 한다.
+     * > 2차 캐시의 Member 영역과 member 테이블을 쓰는 쿼리 캐시는 Hibernate 가 벌크 연산 시점에 무효화한다.
+     */
+    int bulkAgePlusInPlace(int age);
+
+    int bulkMoveTeam(Team from, Team to);
+
+    int bulkDeleteByAgeBetween(int minAge, int maxAge);
+
+    /**
+     * userName(natural id) 조회
+     * userName > id 는 natural id 캐시, 엔티티는 2차 캐시에서 먼저 찾는다. > 같은 userName 을 다시 조회하면 SQL 이 나가지 않는다.
+     */
+    List<Member> findListByUserName(String userName); // 컬렉션 반환
+    Member findMemberByUserName(String userName); // 객체 반환
+    Optional<Member> findOptionalByUserName(String userName); // Optional 객체 반환
+
 }
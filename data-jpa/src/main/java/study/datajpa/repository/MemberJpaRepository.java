@@ -1,10 +1,12 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.member.Member;
 
 import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
 import java.util.List;
 
 @Repository
@@ -40,13 +42,13 @@ public class MemberJpaRepository {
         ).getSingleResult();
     }
 
+    // natural id 조회 (natural id 캐시 > 2차 캐시 > DB)
     public Member findByUserName(String userName) {
-        return entityManager.createQuery(
-                "select m from Member m where m.userName = :username",
-                        Member.class
-                )
-                .setParameter("username", userName)
-                .getSingleResult();
+        Member member = entityManager.unwrap(Session.class).bySimpleNaturalId(Member.class).load(userName);
+        if (member == null) {
+            throw new NoResultException("No member with userName: " + userName);
+        }
+        return member;
     }
 
     public List<Member> findByUsernameAndAgeGreaterThan(String userName, int age) {
@@ -70,6 +72,67 @@ public class MemberJpaRepository {
                 .getResultList();
     }
 
+    /**
+     * Keyset(seek) 페이징
+     * offset 대신 마지막으로 읽은 (userName, id) 를 조건으로 넘긴다.
+     * lastId 가 null 이면 첫 페이지, null userName 은 맨 뒤 (desc nulls last)
+     */
+    public List<Member> findByPage(int age, String lastUserName, Long lastId, int limit) {
+        if (lastId == null) {
+            return entityManager.createQuery(
+                    "select m from Member m where m.age = :age order by m.userName desc nulls last, m.id",
+                    Member.class
+                    )
+                    .setParameter("age", age)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        if (lastUserName == null) {
+            return entityManager.createQuery(
+                    "select m from Member m where m.age = :age" +
+                            " and m.userName is null and m.id > :lastId" +
+                            " order by m.userName desc nulls last, m.id",
+                    Member.class
+                    )
+                    .setParameter("age", age)
+                    .setParameter("lastId", lastId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        return entityManager.createQuery(
+                "select m from Member m where m.age = :age" +
+                        " and (m.userName < :username or (m.userName = :username and m.id > :lastId) or m.userName is null)" +
+                        " order by m.userName desc nulls last, m.id",
+                Member.class
+                )
+                .setParameter("age", age)
+                .setParameter("username", lastUserName)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public List<Member> findNextById(Long lastId, int limit) {
+        if (lastId == null) {
+            return entityManager.createQuery(
+                    "select m from Member m order by m.id",
+                    Member.class
+                    )
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        return entityManager.createQuery(
+                "select m from Member m where m.id > :lastId order by m.id",
+                Member.class
+                )
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     public long totalCount(int age) {
         return entityManager.createQuery(
                 "select count(m) from Member m where m.age = :age",
@@ -0,0 +1,78 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.dto.MemberDto;
+
+import javax.persistence.EntityManager;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 리포트(대량 읽기) 전용 리포지토리
+ *
+ * StatelessSession 으로 조회해서 한 행씩 콜백으로 넘긴다.
+ * - 영속성 컨텍스트(1차 캐시), 변경 감지용 스냅샷, 2차 캐시를 거치지 않는다.
+ * - 넘겨받은 엔티티는 관리되지 않는다. 지연 로딩도 안되므로 필요한 연관관계는 페치 조인으로 가져온다.
+ *
+ * 현재 트랜잭션의 커넥션 위에서 StatelessSession 을 연다. (아직 flush 안 된 변경은 보이지 않으므로 필요하면 먼저 flush)
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberReportJpaRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    public void forEachUserName(Consumer<String> action) {
+        scroll("select m.userName from Member m", String.class, action);
+    }
+
+    public void forEachMemberDto(Consumer<MemberDto> action) {
+        scroll(
+                "select new study.datajpa.entity.member.dto.MemberDto(m.id, m.userName, t.name) from Member m join m.team t",
+                MemberDto.class,
+                action
+        );
+    }
+
+    // 전체 회원 (Team 은 페치 조인)
+    public void forEachMember(Consumer<Member> action) {
+        scroll("select m from Member m left join fetch m.team", Member.class, action);
+    }
+
+    // (userName, id) 만 가져온다. (MemberNameIndex 재구성)
+    public void forEachUserNameAndId(BiConsumer<String, Long> action) {
+        scrollRows("select m.userName, m.id from Member m", row -> action.accept((String) row[0], (Long) row[1]));
+    }
+
+    private <T> void scroll(String query, Class<T> resultType, Consumer<T> action) {
+        scrollRows(query, row -> action.accept(resultType.cast(row[0])));
+    }
+
+    private void scrollRows(String query, Consumer<Object[]> action) {
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            // 커넥션은 트랜잭션 소유라서 StatelessSession 을 닫아도 커넥션은 닫히지 않는다.
+            try (StatelessSession session = sessionFactory.openStatelessSession(connection);
+                 ScrollableResults results = session.createQuery(query)
+                         .setFetchSize(FETCH_SIZE)
+                         .setReadOnly(true)
+                         .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    action.accept(results.get());
+                }
+            }
+        });
+    }
+
+}
@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import study.datajpa.entity.member.Member;
@@ -13,7 +14,7 @@ import study.datajpa.entity.member.projections.NestedClosedProjections;
 import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberCustomRepository {
 
@@ -31,15 +32,23 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
     @Query("select new study.datajpa.entity.member.dto.MemberDto(m.id, m.userName, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    /**
+     * 대용량 export 용 스트리밍 조회
+     * - List 로 한 번에 올리지 않고 JDBC fetch size 만큼씩 커서로 읽는다.
+     * - DTO 로 바로 조회하므로 영속성 컨텍스트에 엔티티가 쌓이지 않는다. (스냅샷, 1차 캐시 X)
+     * - 트랜잭션 안에서 사용하고, 반드시 close 해야 한다. (try-with-resources)
+     */
+    @QueryHints(value = @QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new study.datajpa.entity.member.dto.MemberDto(m.id, m.userName, t.name) from Member m left join m.team t")
+    Stream<MemberDto> streamMemberDto();
+
     @Query("select m from Member m where m.userName in :names")
     List<Member> findByNames(@Param("names") Collection<String> names);
 
     @Query("select m from Member m where m.age = :age order by m.userName desc")
     List<Member> findByPage(@Param("age") int age);
 
-    List<Member> findListByUserName(String userName); // 컬렉션 반환
-    Member findMemberByUserName(String userName); // 객체 반환
-    Optional<Member> findOptionalByUserName(String userName); // Optional 객체 반환
+    // findListByUserName / findMemberByUserName / findOptionalByUserName 은 natural id 로 조회한다. (MemberCustomRepository)
 
     /**
      * Paging > total count 쿼리도 같이 발생
@@ -66,6 +75,13 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
     // Slicing > select 만 실행
     //Slice<Member> findByAge(int age, Pageable pageable);
 
+    /**
+     * Slice > count 쿼리 없이 limit + 1 건을 가져와서 다음 페이지 유무만 판단한다.
+     * 전체 개수가 필요 없는 "더보기" 화면에서 사용
+     */
+    Slice<Member> findSliceBy(Pageable pageable);
+    Slice<Member> findSliceByAge(int age, Pageable pageable);
+
     // Bulk operation
 
     /**
@@ -147,9 +163,15 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
     Member findByNativeQuery(String userName);
 
     @Query(value = "select m.member_id as id, m.username, t.name as teamName" +
-            " from member m left join team t",
+            " from member m left join team t on m.team_id = t.team_id",
             countQuery = "select count(*) from member",
             nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
 
+    // count 쿼리 없이 pageSize + 1 건 (findSliceByNativeProjectionMaterialized 와 비교용)
+    @Query(value = "select m.member_id as id, m.username, t.name as teamName" +
+            " from member m left join team t on m.team_id = t.team_id",
+            nativeQuery = true)
+    Slice<MemberProjection> findSliceByNativeProjection(Pageable pageable);
+
 }
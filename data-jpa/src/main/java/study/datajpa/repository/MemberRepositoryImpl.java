@@ -1,10 +1,61 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.Team;
+import study.datajpa.entity.member.dto.MemberDto;
+import study.datajpa.entity.member.dto.MemberVersionDto;
+import study.datajpa.entity.member.projections.MemberProjection;
+import study.datajpa.repository.support.BulkUpdateResult;
+import study.datajpa.repository.support.CountCache;
+import study.datajpa.repository.support.InListChunks;
+import study.datajpa.repository.support.ProjectionMaterializer;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 /**
  * MemberRepository + Impl
@@ -15,12 +66,76 @@ import java.util.List;
  * 2. 비즈니스 로직이 핵심인 것과 핵심이 아닌 것을 분리
  * 3. 라이프 사이클에 따른 기능과 역할에 따라 코드 분리
  */
+@Slf4j
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberCustomRepository {
 
+    private static final String COUNT_ALL = "select count(m) from Member m";
+    private static final String COUNT_BY_AGE = "select count(m) from Member m where m.age = :age";
+    private static final String BULK_AGE_PLUS_RANGE = "update Member m set m.age = m.age + 1" +
+            " where m.id >= :fromId and m.id < :toId and m.age >= :age";
+    private static final String TEAM_MEMBERS_ROLE = Team.class.getName() + ".members";
+    private static final String FIND_BY_NAMES = "select m from Member m left join fetch m.team where m.userName in :names";
+    private static final String FIND_BY_NAME_WITH_TEAM = "select m from Member m left join fetch m.team where m.userName = :userName";
+    private static final String MEMBER_VERSION = "select new study.datajpa.entity.member.dto.MemberVersionDto(m.id, m.lastModifiedDateTime, t.lastModifiedDateTime)" +
+            " from Member m left join m.team t";
+    private static final String NATIVE_PROJECTION = "select m.member_id as id, m.username, t.name as teamName" +
+            " from member m left join team t on m.team_id = t.team_id";
+
     private final EntityManager entityManager;
+    private final CountCache countCache;
+    private final PlatformTransactionManager transactionManager;
+    private final ProjectionMaterializer projectionMaterializer;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    @Value("${datajpa.in-list.chunk-size:512}")
+    private int inListChunkSize;
+
+    @Value("${datajpa.in-list.parallelism:4}")
+    private int inListParallelism;
+
+    @Value("${datajpa.bulk-update.workers:4}")
+    private int bulkUpdateWorkers;
+
+    @Value("${datajpa.bulk-update.partition-size:10000}")
+    private long bulkUpdatePartitionSize;
+
+    @Value("${datajpa.bulk-update.max-attempts:3}")
+    private int bulkUpdateMaxAttempts;
+
+    private ExecutorService inListExecutor;
+    private ExecutorService bulkUpdateExecutor;
+    private TransactionTemplate readOnlyRequiresNew;
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    public void init() {
+        // 큐가 가득 차면 호출한 스레드에서 직접 실행한다. (REQUIRES_NEW 라서 호출한 트랜잭션과 섞이지 않는다)
+        inListExecutor = new ThreadPoolExecutor(
+                inListParallelism, inListParallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(1024), new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        // 파티션 작업은 호출마다 만들지 않고 같이 쓴다. (동시에 여러 번 호출되면 workers 개 스레드를 나눠 쓴다)
+        bulkUpdateExecutor = Executors.newFixedThreadPool(bulkUpdateWorkers);
+
+        readOnlyRequiresNew = new TransactionTemplate(transactionManager);
+        readOnlyRequiresNew.setReadOnly(true);
+        readOnlyRequiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        inListExecutor.shutdown();
+        bulkUpdateExecutor.shutdown();
+    }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Member> findMemberCustom() {
         return entityManager.createQuery(
                 "select m from Member m",
@@ -28,4 +143,466 @@ public class MemberRepositoryImpl implements MemberCustomRepository {
         ).getResultList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findNextById(Long lastId, int limit) {
+        if (lastId == null) {
+            return entityManager.createQuery(
+                    "select m from Member m order by m.id",
+                    Member.class
+                    )
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        return entityManager.createQuery(
+                "select m from Member m where m.id > :lastId order by m.id",
+                Member.class
+                )
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findNextByUserNameDesc(String lastUserName, Long lastId, int limit) {
+        if (lastId == null) {
+            return entityManager.createQuery(
+                    "select m from Member m order by m.userName desc nulls last, m.id",
+                    Member.class
+                    )
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        // 마지막 행의 userName 이 null > null 구간(맨 뒤)에서 id 다음부터
+        if (lastUserName == null) {
+            return entityManager.createQuery(
+                    "select m from Member m" +
+                            " where m.userName is null and m.id > :lastId" +
+                            " order by m.userName desc nulls last, m.id",
+                    Member.class
+                    )
+                    .setParameter("lastId", lastId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        // (userName desc nulls last, id) 복합 키 기준으로 다음 행부터 조회
+        return entityManager.createQuery(
+                "select m from Member m" +
+                        " where m.userName < :userName" +
+                        " or (m.userName = :userName and m.id > :lastId)" +
+                        " or m.userName is null" +
+                        " order by m.userName desc nulls last, m.id",
+                Member.class
+                )
+                .setParameter("userName", lastUserName)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> findAllWithCachedCount(Pageable pageable) {
+        TypedQuery<Member> query = entityManager.createQuery(
+                QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"),
+                Member.class
+        );
+        List<Member> content = applyPaging(query, pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get(COUNT_ALL, new Object[0],
+                        () -> entityManager.createQuery(COUNT_ALL, Long.class).getSingleResult()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> findByAgeWithCachedCount(int age, Pageable pageable) {
+        TypedQuery<Member> query = entityManager.createQuery(
+                QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m"),
+                Member.class
+        ).setParameter("age", age);
+        List<Member> content = applyPaging(query, pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get(COUNT_BY_AGE, new Object[]{age},
+                        () -> entityManager.createQuery(COUNT_BY_AGE, Long.class)
+                                .setParameter("age", age)
+                                .getSingleResult()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberDto> findMemberDtoPage(Pageable pageable) {
+        TypedQuery<MemberDto> query = entityManager.createQuery(
+                QueryUtils.applySorting(
+                        "select new study.datajpa.entity.member.dto.MemberDto(m.id, m.userName, t.name)" +
+                                " from Member m left join m.team t",
+                        pageable.getSort(), "m"
+                ),
+                MemberDto.class
+        );
+        List<MemberDto> content = applyPaging(query, pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get(COUNT_ALL, new Object[0],
+                        () -> entityManager.createQuery(COUNT_ALL, Long.class).getSingleResult()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberVersionDto> findMemberVersionPage(Pageable pageable) {
+        TypedQuery<MemberVersionDto> query = entityManager.createQuery(
+                QueryUtils.applySorting(MEMBER_VERSION, pageable.getSort(), "m"),
+                MemberVersionDto.class
+        );
+        List<MemberVersionDto> content = applyPaging(query, pageable).getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get(COUNT_ALL, new Object[0],
+                        () -> entityManager.createQuery(COUNT_ALL, Long.class).getSingleResult()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<MemberVersionDto> findMemberVersion(Long id) {
+        return entityManager.createQuery(MEMBER_VERSION + " where m.id = :id", MemberVersionDto.class)
+                .setParameter("id", id)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> List<T> findMaterializedByUserName(String userName, Class<T> type) {
+        List<Member> members = entityManager.createQuery(FIND_BY_NAME_WITH_TEAM, Member.class)
+                .setParameter("userName", userName)
+                .getResultList();
+        return projectionMaterializer.fromTargets(type, members);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Page<MemberProjection> findByNativeProjectionMaterialized(Pageable pageable) {
+        Query query = entityManager.createNativeQuery(NATIVE_PROJECTION, Tuple.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<MemberProjection> content = projectionMaterializer.fromTuples(MemberProjection.class, query.getResultList());
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countCache.get(COUNT_ALL, new Object[0],
+                        () -> entityManager.createQuery(COUNT_ALL, Long.class).getSingleResult()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Slice<MemberProjection> findSliceByNativeProjectionMaterialized(Pageable pageable) {
+        Query query = entityManager.createNativeQuery(NATIVE_PROJECTION, Tuple.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize() + 1);
+        }
+        List<Tuple> tuples = query.getResultList();
+
+        boolean hasNext = pageable.isPaged() && tuples.size() > pageable.getPageSize();
+        if (hasNext) {
+            tuples = tuples.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(projectionMaterializer.fromTuples(MemberProjection.class, tuples), pageable, hasNext);
+    }
+
+    @Override
+    @Transactional
+    public long saveAllBatched(Iterable<? extends Member> members) {
+        long count = 0;
+        for (Member member : members) {
+            entityManager.persist(member);
+
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return count;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByNamesChunked(Collection<String> names) {
+        Map<Long, Member> members = new LinkedHashMap<>();
+        for (List<String> chunk : InListChunks.split(names, inListChunkSize)) {
+            for (Member member : findByNameChunk(chunk)) {
+                members.putIfAbsent(member.getId(), member);
+            }
+        }
+        return new ArrayList<>(members.values());
+    }
+
+    @Override
+    public List<Member> findByNamesParallel(Collection<String> names) {
+        // 호출한 트랜잭션이 커넥션을 쥔 채로 작업 스레드의 커넥션을 기다리면
+        // 풀이 (parallelism + 동시 호출 수) 보다 작을 때 커넥션 타임아웃까지 서로 기다린다. > 현재 트랜잭션에서 순서대로 조회
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return findByNamesChunked(names);
+        }
+
+        List<Future<List<Member>>> futures = new ArrayList<>();
+        for (List<String> chunk : InListChunks.split(names, inListChunkSize)) {
+            futures.add(inListExecutor.submit(() -> readOnlyRequiresNew.execute(status -> findByNameChunk(chunk))));
+        }
+
+        Map<Long, Member> members = new LinkedHashMap<>();
+        try {
+            for (Future<List<Member>> future : futures) {
+                for (Member member : future.get()) {
+                    members.putIfAbsent(member.getId(), member);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while looking up members by names", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return new ArrayList<>(members.values());
+    }
+
+    @Override
+    public BulkUpdateResult bulkAgePlusPartitioned(int age) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("bulkAgePlusPartitioned must be called outside of a transaction");
+        }
+
+        long start = System.currentTimeMillis();
+        // 시작 시점의 id 범위만 대상으로 한다. (이후에 insert 된 행은 포함하지 않음)
+        Object[] bounds = entityManager.createQuery("select min(m.id), max(m.id) from Member m", Object[].class)
+                .getSingleResult();
+        if (bounds[0] == null) {
+            return new BulkUpdateResult(0, 0, 0, 0);
+        }
+
+        List<long[]> partitions = new ArrayList<>();
+        for (long fromId = (Long) bounds[0]; fromId <= (Long) bounds[1]; fromId += bulkUpdatePartitionSize) {
+            partitions.add(new long[]{fromId, fromId + bulkUpdatePartitionSize});
+        }
+
+        AtomicLong updatedRows = new AtomicLong();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger retries = new AtomicInteger();
+        int logEvery = Math.max(1, partitions.size() / 10);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (long[] partition : partitions) {
+            futures.add(bulkUpdateExecutor.submit(() -> {
+                long rows = updatedRows.addAndGet(updateAgePartition(age, partition[0], partition[1], retries));
+                int done = completed.incrementAndGet();
+                if (done % logEvery == 0 || done == partitions.size()) {
+                    long elapsed = Math.max(1, System.currentTimeMillis() - start);
+                    log.info("bulkAgePlus partitions {}/{}, rows={}, rows/sec={}",
+                            done, partitions.size(), rows, rows * 1000 / elapsed);
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while running bulkAgePlus partitions", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            log.warn("bulkAgePlus stopped, {}/{} partitions committed ({} rows)",
+                    completed.get(), partitions.size(), updatedRows.get());
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        return new BulkUpdateResult(updatedRows.get(), partitions.size(), retries.get(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * [fromId, toId) 범위를 한 트랜잭션으로 update 한다.
+     * 일시적인 실패(락 타임아웃, 데드락 등)는 트랜잭션이 롤백된 상태이므로 같은 범위를 다시 실행한다.
+     */
+    private int updateAgePartition(int age, long fromId, long toId, AtomicInteger retries) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Integer rows = requiresNew.execute(status -> entityManager.createQuery(BULK_AGE_PLUS_RANGE)
+                        .setParameter("fromId", fromId)
+                        .setParameter("toId", toId)
+                        .setParameter("age", age)
+                        .executeUpdate());
+                return rows == null ? 0 : rows;
+            } catch (RuntimeException e) {
+                if (!isTransient(e) || attempt >= bulkUpdateMaxAttempts) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                log.warn("bulkAgePlus partition [{}, {}) failed (attempt {}/{}), retrying: {}",
+                        fromId, toId, attempt, bulkUpdateMaxAttempts, e.getMessage());
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        if (e instanceof TransientDataAccessException) {
+            return true;
+        }
+        DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+        return translated instanceof TransientDataAccessException;
+    }
+
+    @Override
+    @Transactional
+    public int bulkAgePlusInPlace(int age) {
+        entityManager.flush(); // 영속성 컨텍스트의 상태 = DB 상태로 맞춘 뒤에 대상을 고른다.
+        List<Member> affected = managedMembers(member -> member.getAge() >= age);
+
+        int rows = entityManager.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+                .setParameter("age", age)
+                .executeUpdate();
+
+        affected.forEach(entityManager::refresh);
+        return rows;
+    }
+
+    @Override
+    @Transactional
+    public int bulkMoveTeam(Team from, Team to) {
+        entityManager.flush();
+        List<Member> affected = managedMembers(member -> from.getId().equals(teamIdOf(member)));
+
+        int rows = entityManager.createQuery("update Member m set m.team = :to where m.team = :from")
+                .setParameter("to", to)
+                .setParameter("from", from)
+                .executeUpdate();
+
+        affected.forEach(entityManager::refresh);
+        Set<Long> teamIds = new HashSet<>();
+        teamIds.add(from.getId());
+        teamIds.add(to.getId());
+        refreshLoadedMembers(teamIds);
+        return rows;
+    }
+
+    @Override
+    @Transactional
+    public int bulkDeleteByAgeBetween(int minAge, int maxAge) {
+        entityManager.flush();
+        List<Member> affected = managedMembers(member -> member.getAge() >= minAge && member.getAge() <= maxAge);
+        Set<Long> teamIds = new HashSet<>();
+        for (Member member : affected) {
+            Long teamId = teamIdOf(member);
+            if (teamId != null) {
+                teamIds.add(teamId);
+            }
+        }
+
+        int rows = entityManager.createQuery("delete from Member m where m.age between :minAge and :maxAge")
+                .setParameter("minAge", minAge)
+                .setParameter("maxAge", maxAge)
+                .executeUpdate();
+
+        affected.forEach(entityManager::detach);
+        refreshLoadedMembers(teamIds);
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findListByUserName(String userName) {
+        Member member = findMemberByUserName(userName);
+        return member == null ? Collections.emptyList() : Collections.singletonList(member);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Member findMemberByUserName(String userName) {
+        if (userName == null) {
+            return null;
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Member.class).load(userName);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Member> findOptionalByUserName(String userName) {
+        return Optional.ofNullable(findMemberByUserName(userName));
+    }
+
+    // 현재 영속성 컨텍스트에 올라와 있는(초기화된) Member 중 조건에 맞는 것
+    private List<Member> managedMembers(Predicate<Member> filter) {
+        List<Member> members = new ArrayList<>();
+        for (Object entity : entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getEntitiesByKey().values()) {
+            if (entity instanceof Member && filter.test((Member) entity)) {
+                members.add((Member) entity);
+            }
+        }
+        return members;
+    }
+
+    // Team 프록시를 초기화하지 않고 id 만 꺼낸다.
+    private Long teamIdOf(Member member) {
+        if (member.getTeam() == null) {
+            return null;
+        }
+        return (Long) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(member.getTeam());
+    }
+
+    // members 컬렉션이 이미 초기화된 Team 만 refresh 한다. (초기화 전이면 나중에 DB 에서 새로 읽는다)
+    private void refreshLoadedMembers(Set<Long> teamIds) {
+        List<Team> teams = new ArrayList<>();
+        for (Object entity : entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getEntitiesByKey().values()) {
+            if (entity instanceof Team && teamIds.contains(((Team) entity).getId())
+                    && Hibernate.isInitialized(((Team) entity).getMembers())) {
+                teams.add((Team) entity);
+            }
+        }
+        teams.forEach(entityManager::refresh);
+
+        org.hibernate.Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        teamIds.forEach(teamId -> cache.evictCollectionData(TEAM_MEMBERS_ROLE, teamId));
+    }
+
+    private List<Member> findByNameChunk(List<String> names) {
+        return entityManager.createQuery(FIND_BY_NAMES, Member.class)
+                .setParameter("names", names)
+                .getResultList();
+    }
+
+    private static <T> TypedQuery<T> applyPaging(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
+
 }
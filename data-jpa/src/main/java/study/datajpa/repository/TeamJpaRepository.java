@@ -30,7 +30,10 @@ public class TeamJpaRepository {
         return entityManager.createQuery(
                 "select t from Team t",
                 Team.class
-        ).getResultList();
+                )
+                .setHint("org.hibernate.cacheable", true)
+                .setHint("org.hibernate.cacheRegion", Team.QUERY_CACHE_REGION)
+                .getResultList();
     }
 
     public long count() {
@@ -1,10 +1,23 @@
 package study.datajpa.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import study.datajpa.entity.member.Team;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+import javax.persistence.QueryHint;
+import java.util.List;
 
+public interface TeamRepository extends JpaRepository<Team, Long> {
 
+    /**
+     * 쿼리 캐시
+     * Team 테이블이 변경되면 Hibernate 가 캐시된 결과를 버린다. (update timestamps)
+     */
+    @Override
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = Team.QUERY_CACHE_REGION)
+    })
+    List<Team> findAll();
 
 }
@@ -0,0 +1,33 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+
+/**
+ * 파티션 단위 bulk update 결과
+ */
+@Getter
+public class BulkUpdateResult {
+
+    private final long updatedRows;
+    private final int partitions;
+    private final int retries; // 실패 후 다시 실행한 파티션 횟수
+    private final long elapsedMillis;
+
+    public BulkUpdateResult(long updatedRows, int partitions, int retries, long elapsedMillis) {
+        this.updatedRows = updatedRows;
+        this.partitions = partitions;
+        this.retries = retries;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? updatedRows : updatedRows * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BulkUpdateResult{updatedRows=%d, partitions=%d, retries=%d, elapsedMillis=%d, rowsPerSecond=%.1f}",
+                updatedRows, partitions, retries, elapsedMillis, getRowsPerSecond());
+    }
+
+}
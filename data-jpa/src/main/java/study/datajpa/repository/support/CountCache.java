@@ -0,0 +1,114 @@
+package study.datajpa.repository.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Paging total count 캐시
+ *
+ * Page 조회마다 같이 나가는 count 쿼리 결과를 (쿼리 + 파라미터) 단위로 잠깐 들고 있는다.
+ * - ttl-millis 만큼은 실제 값보다 오래된(stale) count 가 나갈 수 있다.
+ * - 등록/삭제/벌크 연산이 발생하면 CountCacheInvalidationAspect 가 전부 비운다.
+ * - max-entries 를 넘으면 가장 오래 안 쓴 항목 하나만 내보낸다. (LRU)
+ */
+@Component
+public class CountCache {
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    // access-order LinkedHashMap. count 쿼리는 락 밖에서 실행하고 조회/저장만 동기화한다.
+    private final Map<String, CachedCount> counts;
+
+    // 무효화 세대. count 계산 중에 무효화가 끼어들면 계산 결과를 버린다.
+    private final AtomicLong generation = new AtomicLong();
+
+    public CountCache(@Value("${datajpa.count-cache.enabled:true}") boolean enabled,
+                      @Value("${datajpa.count-cache.ttl-millis:5000}") long ttlMillis,
+                      @Value("${datajpa.count-cache.max-entries:1000}") int maxEntries) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+        this.counts = new LinkedHashMap<String, CachedCount>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > CountCache.this.maxEntries;
+            }
+        };
+    }
+
+    public long get(String query, Object[] parameters, LongSupplier countQuery) {
+        if (!enabled) {
+            return countQuery.getAsLong();
+        }
+
+        String key = query + Arrays.deepToString(parameters);
+        long now = System.nanoTime();
+        CachedCount cached;
+        synchronized (counts) {
+            cached = counts.get(key);
+        }
+        if (cached != null && now - cached.loadedAt < ttlNanos) {
+            return cached.count;
+        }
+
+        long currentGeneration = generation.get();
+        long count = countQuery.getAsLong();
+        synchronized (counts) {
+            if (currentGeneration == generation.get()) {
+                counts.put(key, new CachedCount(count, now));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 트랜잭션 안이라면 커밋(롤백) 이후에 한 번 더 비운다.
+     * 커밋 전에 다른 스레드가 이전 count 를 다시 캐시해 두는 경우를 막기 위함.
+     */
+    public void invalidate() {
+        invalidateNow();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CountCache.this);
+                    invalidateNow();
+                }
+            });
+        }
+    }
+
+    private void invalidateNow() {
+        synchronized (counts) {
+            generation.incrementAndGet();
+            counts.clear();
+        }
+    }
+
+    private static class CachedCount {
+
+        private final long count;
+        private final long loadedAt;
+
+        private CachedCount(long count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package study.datajpa.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member 를 변경하는 repository 메서드가 호출되면 count 캐시를 비운다.
+ * (save*, delete*, bulk*)
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class CountCacheInvalidationAspect {
+
+    private final CountCache countCache;
+
+    @After("(target(study.datajpa.repository.MemberRepository) || target(study.datajpa.repository.MemberJpaRepository))" +
+            " && (execution(* save*(..)) || execution(* delete*(..)) || execution(* bulk*(..)))")
+    public void invalidateCountCache() {
+        countCache.invalidate();
+    }
+
+}
@@ -0,0 +1,51 @@
+package study.datajpa.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * in 절 파라미터 분할
+ *
+ * - 중복을 제거하고 maxChunkSize 이하의 2의 거듭제곱 크기로 나눈다.
+ * - 마지막 청크는 마지막 값을 반복해서 2의 거듭제곱 크기로 채운다.
+ *
+ * > in 절 파라미터 개수 종류가 log2(maxChunkSize) 개로 줄어서 쿼리 플랜/statement 캐시가 재사용된다.
+ * > 드라이버/DB 의 바인딩 파라미터 개수 제한도 넘지 않는다.
+ */
+public final class InListChunks {
+
+    private InListChunks() {
+    }
+
+    public static <T> List<List<T>> split(Collection<T> values, int maxChunkSize) {
+        if (maxChunkSize < 1) {
+            throw new IllegalArgumentException("maxChunkSize must be positive: " + maxChunkSize);
+        }
+
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        int chunkSize = Integer.highestOneBit(maxChunkSize);
+
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<T> chunk = new ArrayList<>(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+            pad(chunk);
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static <T> void pad(List<T> chunk) {
+        int paddedSize = Integer.highestOneBit(chunk.size());
+        if (paddedSize < chunk.size()) {
+            paddedSize <<= 1;
+        }
+
+        T last = chunk.get(chunk.size() - 1);
+        while (chunk.size() < paddedSize) {
+            chunk.add(last);
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package study.datajpa.repository.support;
+
+import java.util.Arrays;
+
+/**
+ * ProjectionMaterializer 가 만드는 프로젝션 구현 클래스의 부모
+ *
+ * 생성된 클래스의 getter 는 values[i] 를 바로 꺼내서 반환한다. (리플렉션, 프록시, SpEL X)
+ */
+public abstract class MaterializedProjection {
+
+    protected final Object[] values;
+
+    protected MaterializedProjection(Object[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(values, ((MaterializedProjection) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getInterfaces()[0].getSimpleName() + Arrays.toString(values);
+    }
+
+}
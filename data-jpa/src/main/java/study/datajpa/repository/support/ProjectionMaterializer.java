@@ -0,0 +1,291 @@
+package study.datajpa.repository.support;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.implementation.bytecode.collection.ArrayAccess;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodReturn;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import study.datajpa.entity.member.projections.MemberProjection;
+import study.datajpa.entity.member.projections.MemberUserNameOnly;
+import study.datajpa.entity.member.projections.NestedClosedProjections;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import java.beans.Introspector;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인터페이스 기반 프로젝션을 프록시 없이 만든다.
+ *
+ * 스프링 데이터의 인터페이스 프로젝션은 행마다 JDK 프록시를 만들고, getter 를 호출할 때마다 리플렉션(open projection 이면 SpEL 평가)을 거친다.
+ * 여기서는 프로젝션 인터페이스마다 구현 클래스를 한 번만 생성(ByteBuddy)하고, 값은 만들 때 한 번에 채운다.
+ *
+ * - fromTargets : 엔티티에서 값을 읽는다. getter 마다 SpEL 을 미리 파싱해 두고 컴파일(MIXED)해서 평가한다.
+ *   > closed 프로퍼티는 target.{property}, open 프로퍼티는 @Value 식 그대로 (#{target.userName + ' ' + target.age})
+ *   > 반환 타입이 프로젝션 인터페이스면 (NestedClosedProjections.getTeam) 같은 방식으로 중첩해서 만든다.
+ * - fromTuples : native 쿼리 Tuple 에서 alias(대소문자 무시)로 값을 읽는다.
+ *
+ * > 값을 미리 채우므로 지연 로딩 프로퍼티는 트랜잭션 안에서 만들어야 한다. (프록시처럼 getter 호출 시점에 읽지 않음)
+ * > @Value 식의 빈 참조(@beanName)는 지원하지 않는다.
+ */
+@Component
+public class ProjectionMaterializer {
+
+    private static final FieldDescription.InDefinedShape VALUES;
+
+    static {
+        try {
+            VALUES = new FieldDescription.ForLoadedField(MaterializedProjection.class.getDeclaredField("values"));
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, ProjectionMaterializer.class.getClassLoader())
+    );
+    private final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+    private final Map<Class<?>, ProjectionType> types = new ConcurrentHashMap<>();
+
+    public ProjectionMaterializer() {
+        // 애플리케이션이 뜰 때 미리 생성한다. (그 외 인터페이스는 처음 사용할 때 생성)
+        for (Class<?> projection : Arrays.asList(MemberProjection.class, MemberUserNameOnly.class,
+                NestedClosedProjections.class, NestedClosedProjections.TeamInfo.class)) {
+            type(projection);
+        }
+    }
+
+    public <T> List<T> fromTargets(Class<T> projection, List<?> targets) {
+        ProjectionType type = type(projection);
+        List<T> results = new ArrayList<>(targets.size());
+        for (Object target : targets) {
+            results.add(projection.cast(fromTarget(type, target)));
+        }
+        return results;
+    }
+
+    public <T> List<T> fromTuples(Class<T> projection, List<Tuple> tuples) {
+        List<T> results = new ArrayList<>(tuples.size());
+        if (tuples.isEmpty()) {
+            return results;
+        }
+
+        // 컬럼 위치는 첫 행에서 한 번만 찾는다.
+        ProjectionType type = type(projection);
+        int[] columns = type.columns(tuples.get(0).getElements());
+        for (Tuple tuple : tuples) {
+            Object[] row = tuple.toArray();
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = type.convert(i, row[columns[i]]);
+            }
+            results.add(projection.cast(type.newInstance(values)));
+        }
+        return results;
+    }
+
+    private Object fromTarget(ProjectionType type, Object target) {
+        if (target == null) {
+            return null;
+        }
+        if (type.projection.isInstance(target)) {
+            return target;
+        }
+
+        Root root = new Root(target);
+        Object[] values = new Object[type.expressions.length];
+        for (int i = 0; i < values.length; i++) {
+            Object value = type.expressions[i].getValue(root);
+            values[i] = type.nested[i] ? fromTarget(type(type.returnTypes[i]), value) : type.convert(i, value);
+        }
+        return type.newInstance(values);
+    }
+
+    private ProjectionType type(Class<?> projection) {
+        return types.computeIfAbsent(projection, this::createType);
+    }
+
+    private ProjectionType createType(Class<?> projection) {
+        if (!projection.isInterface()) {
+            throw new IllegalArgumentException("Projection must be an interface: " + projection.getName());
+        }
+
+        // 이름 순으로 고정 (getMethods 순서는 정해져 있지 않다)
+        List<Method> getters = new ArrayList<>();
+        for (Method method : projection.getMethods()) {
+            if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())
+                    && method.getParameterCount() == 0 && method.getReturnType() != void.class) {
+                getters.add(method);
+            }
+        }
+        getters.sort(Comparator.comparing(Method::getName));
+
+        DynamicType.Builder<MaterializedProjection> builder = new ByteBuddy()
+                .subclass(MaterializedProjection.class, ConstructorStrategy.Default.IMITATE_SUPER_CLASS_PUBLIC)
+                .name(projection.getName() + "$$Materialized")
+                .implement(projection);
+
+        int size = getters.size();
+        String[] properties = new String[size];
+        Class<?>[] returnTypes = new Class<?>[size];
+        Expression[] expressions = new Expression[size];
+        boolean[] nested = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            Method getter = getters.get(i);
+            properties[i] = propertyName(getter);
+            returnTypes[i] = getter.getReturnType();
+            expressions[i] = expression(getter, properties[i]);
+            nested[i] = isProjection(returnTypes[i]);
+            builder = builder.method(ElementMatchers.is(getter)).intercept(returnValue(i, getter.getReturnType()));
+        }
+
+        Class<?> generated = builder.make()
+                .load(projection.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        try {
+            return new ProjectionType(projection, generated.getConstructor(Object[].class),
+                    properties, returnTypes, expressions, nested);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Generated projection has no Object[] constructor: " + generated.getName(), e);
+        }
+    }
+
+    // return (ReturnType) this.values[index];
+    private static Implementation returnValue(int index, Class<?> returnType) {
+        return new Implementation.Simple(
+                MethodVariableAccess.loadThis(),
+                FieldAccess.forField(VALUES).read(),
+                IntegerConstant.forValue(index),
+                ArrayAccess.REFERENCE.load(),
+                Assigner.DEFAULT.assign(TypeDescription.Generic.OBJECT,
+                        TypeDescription.Generic.OfNonGenericType.ForLoadedType.of(returnType), Assigner.Typing.DYNAMIC),
+                MethodReturn.of(TypeDescription.ForLoadedType.of(returnType))
+        );
+    }
+
+    private Expression expression(Method getter, String property) {
+        Value value = getter.getAnnotation(Value.class);
+        if (value != null) {
+            return parser.parseExpression(value.value(), ParserContext.TEMPLATE_EXPRESSION);
+        }
+        return parser.parseExpression("target." + property);
+    }
+
+    private static String propertyName(Method getter) {
+        String name = getter.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && getter.getReturnType() == boolean.class) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return name;
+    }
+
+    private static boolean isProjection(Class<?> type) {
+        return type.isInterface() && !type.getName().startsWith("java.");
+    }
+
+    // SpEL 루트 객체 : 스프링 데이터의 open projection 처럼 target 으로 원본에 접근한다.
+    public static class Root {
+
+        private final Object target;
+
+        public Root(Object target) {
+            this.target = target;
+        }
+
+        public Object getTarget() {
+            return target;
+        }
+
+    }
+
+    private class ProjectionType {
+
+        private final Class<?> projection;
+        private final Constructor<?> constructor;
+        private final String[] properties;
+        private final Class<?>[] returnTypes;
+        private final Expression[] expressions;
+        private final boolean[] nested;
+
+        private ProjectionType(Class<?> projection, Constructor<?> constructor, String[] properties,
+                               Class<?>[] returnTypes, Expression[] expressions, boolean[] nested) {
+            this.projection = projection;
+            this.constructor = constructor;
+            this.properties = properties;
+            this.returnTypes = returnTypes;
+            this.expressions = expressions;
+            this.nested = nested;
+        }
+
+        private Object newInstance(Object[] values) {
+            try {
+                return constructor.newInstance((Object) values);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Could not create projection " + projection.getName(), e);
+            }
+        }
+
+        // 타입이 다르면 변환한다. (ex. native 쿼리의 BigInteger > Long), null 은 primitive 기본값
+        private Object convert(int index, Object value) {
+            Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(returnTypes[index]);
+            if (value == null) {
+                return returnTypes[index].isPrimitive() ? Array.get(Array.newInstance(returnTypes[index], 1), 0) : null;
+            }
+            return type.isInstance(value) ? value : conversionService.convert(value, type);
+        }
+
+        private int[] columns(List<TupleElement<?>> elements) {
+            int[] columns = new int[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                columns[i] = -1;
+                String property = properties[i].toLowerCase(Locale.ROOT);
+                for (int column = 0; column < elements.size(); column++) {
+                    String alias = elements.get(column).getAlias();
+                    if (alias != null && alias.toLowerCase(Locale.ROOT).equals(property)) {
+                        columns[i] = column;
+                        break;
+                    }
+                }
+                if (columns[i] < 0) {
+                    throw new IllegalArgumentException("No column for " + projection.getSimpleName() + "." + properties[i]);
+                }
+            }
+            return columns;
+        }
+
+    }
+
+}
@@ -0,0 +1,206 @@
+package study.datajpa.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.dto.MemberNameDto;
+import study.datajpa.repository.MemberReportJpaRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Member.userName 접두사(자동완성) 검색 인덱스
+ *
+ * - 애플리케이션이 뜨면 StatelessSession 으로 (userName, id) 를 훑어서 만든다.
+ * - 이후 변경은 Hibernate 커밋 후 이벤트(insert / update / delete)로 반영한다. (롤백된 변경은 반영되지 않는다)
+ * - 엔티티 이벤트가 없는 bulk 삭제 뒤에는 백그라운드에서 다시 만든다. (MemberNameIndexRefreshAspect)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberNameIndex {
+
+    private final MemberReportJpaRepository memberReportJpaRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlatformTransactionManager transactionManager;
+
+    private final PrefixIndex index = new PrefixIndex();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-name-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${datajpa.member-name-index.build-on-startup:true}")
+    private boolean buildOnStartup;
+
+    private volatile long lastRebuildMillis = -1;
+
+    // 검색 지연 시간 (stats 로 메모리 / 재생성 시간과 같이 보여준다)
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAccumulator maxSearchNanos = new LongAccumulator(Math::max, 0);
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        MemberNameListener listener = new MemberNameListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (buildOnStartup) {
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    public List<MemberNameDto> search(String prefix, int limit) {
+        long start = System.nanoTime();
+        List<MemberNameDto> result = index.search(prefix, limit).stream()
+                .map(entry -> new MemberNameDto(entry.getValue(), entry.getKey()))
+                .collect(Collectors.toList());
+
+        long elapsed = System.nanoTime() - start;
+        searches.increment();
+        searchNanos.add(elapsed);
+        maxSearchNanos.accumulate(elapsed);
+        return result;
+    }
+
+    public synchronized MemberNameIndexStats rebuild() {
+        long start = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status ->
+                index.rebuild(entries -> memberReportJpaRepository.forEachUserNameAndId((userName, id) -> {
+                    if (userName != null) {
+                        entries.put(userName, id);
+                    }
+                }))
+        );
+        lastRebuildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        MemberNameIndexStats stats = stats();
+        log.info("Member name index rebuilt: entries={}, estimatedBytes={}, rebuildMillis={}",
+                stats.getEntries(), stats.getEstimatedBytes(), stats.getLastRebuildMillis());
+        return stats;
+    }
+
+    // 현재 트랜잭션이 커밋된 뒤에 백그라운드에서 다시 만든다.
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildExecutor.execute(this::rebuild);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuildExecutor.execute(MemberNameIndex.this::rebuild);
+            }
+        });
+    }
+
+    public MemberNameIndexStats stats() {
+        long count = searches.sum();
+        return new MemberNameIndexStats(index.size(), index.estimatedBytes(), lastRebuildMillis,
+                count, count == 0 ? 0 : searchNanos.sum() / count / 1_000, maxSearchNanos.get() / 1_000);
+    }
+
+    private class MemberNameListener implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Member && ((Member) event.getEntity()).getUserName() != null) {
+                Member member = (Member) event.getEntity();
+                index.put(member.getUserName(), member.getId());
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (!(event.getEntity() instanceof Member)) {
+                return;
+            }
+            Member member = (Member) event.getEntity();
+            if (event.getOldState() != null) {
+                int userNameIndex = event.getPersister().getEntityMetamodel().getPropertyIndex("userName");
+                String oldUserName = (String) event.getOldState()[userNameIndex];
+                if (Objects.equals(oldUserName, member.getUserName())) {
+                    return;
+                }
+                if (oldUserName != null) {
+                    index.remove(oldUserName, member.getId());
+                }
+            }
+            if (member.getUserName() != null) {
+                index.put(member.getUserName(), member.getId());
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Member && ((Member) event.getEntity()).getUserName() != null) {
+                Member member = (Member) event.getEntity();
+                index.remove(member.getUserName(), (Long) event.getId());
+            }
+        }
+
+        // 롤백되면 아무것도 하지 않는다.
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return Member.class.equals(persister.getMappedClass());
+        }
+
+    }
+
+}
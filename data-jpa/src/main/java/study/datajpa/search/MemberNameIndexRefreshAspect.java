@@ -0,0 +1,25 @@
+package study.datajpa.search;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * bulk 삭제는 엔티티 이벤트가 발생하지 않으므로 커밋 후에 MemberNameIndex 를 다시 만든다.
+ * (bulkDelete*, JpaRepository 의 deleteAllInBatch / deleteInBatch / deleteAllByIdInBatch)
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MemberNameIndexRefreshAspect {
+
+    private final MemberNameIndex memberNameIndex;
+
+    @AfterReturning("target(study.datajpa.repository.MemberRepository)" +
+            " && (execution(* bulkDelete*(..)) || execution(* delete*InBatch(..)))")
+    public void rebuildMemberNameIndex() {
+        memberNameIndex.rebuildAfterCommit();
+    }
+
+}
@@ -0,0 +1,29 @@
+package study.datajpa.search;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class MemberNameIndexStats {
+
+    private final int entries;
+    private final long estimatedBytes; // 대략적인 힙 사용량
+    private final long lastRebuildMillis; // 아직 만든 적 없으면 -1
+
+    // 애플리케이션이 뜬 뒤의 search() 호출 수, 평균 / 최대 지연 시간 (분위수는 MemberNameIndexBenchmark)
+    private final long searches;
+    private final long averageSearchMicros;
+    private final long maxSearchMicros;
+
+    public MemberNameIndexStats(int entries, long estimatedBytes, long lastRebuildMillis,
+                                long searches, long averageSearchMicros, long maxSearchMicros) {
+        this.entries = entries;
+        this.estimatedBytes = estimatedBytes;
+        this.lastRebuildMillis = lastRebuildMillis;
+        this.searches = searches;
+        this.averageSearchMicros = averageSearchMicros;
+        this.maxSearchMicros = maxSearchMicros;
+    }
+
+}
@@ -0,0 +1,105 @@
+package study.datajpa.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * 문자열(key) > id 접두사 검색 인덱스
+ *
+ * 정렬된 ConcurrentSkipListMap 에서 [prefix, prefix + '￿') 범위를 앞에서부터 limit 개 읽는다. (O(log n + limit))
+ * - 조회는 락 없이 읽는다.
+ * - 변경(put / remove / rebuild)은 서로 순서를 맞추기 위해 synchronized
+ * - rebuild 중에 들어온 변경은 따로 모아 두었다가 새 인덱스에 다시 적용한 뒤에 교체한다.
+ */
+public class PrefixIndex {
+
+    // ConcurrentSkipListMap 노드 + 평균 인덱스 노드 + Long + String 객체 + byte[] 헤더 (64bit, compressed oops 기준 대략치)
+    private static final int ENTRY_OVERHEAD_BYTES = 24 + 8 + 16 + 24 + 16;
+
+    private volatile ConcurrentSkipListMap<String, Long> entries = new ConcurrentSkipListMap<>();
+    private List<Consumer<Map<String, Long>>> pendingChanges; // rebuild 중에만 null 이 아니다.
+
+    public List<Map.Entry<String, Long>> search(String prefix, int limit) {
+        ConcurrentNavigableMap<String, Long> range = entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+
+        List<Map.Entry<String, Long>> result = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, Long> entry : range.entrySet()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    public synchronized void put(String key, Long id) {
+        apply(map -> map.put(key, id));
+    }
+
+    // 다른 id 가 이미 같은 key 를 쓰고 있으면(이름이 다른 회원에게 넘어감) 지우지 않는다.
+    public synchronized void remove(String key, Long id) {
+        apply(map -> map.remove(key, id));
+    }
+
+    /**
+     * source 가 넘겨주는 (key, id) 로 인덱스를 새로 만든 뒤 한 번에 교체한다.
+     * 만드는 동안에도 기존 인덱스로 조회할 수 있다.
+     */
+    public void rebuild(Consumer<Map<String, Long>> source) {
+        synchronized (this) {
+            if (pendingChanges != null) {
+                throw new IllegalStateException("Rebuild already in progress");
+            }
+            pendingChanges = new ArrayList<>();
+        }
+
+        ConcurrentSkipListMap<String, Long> rebuilt = new ConcurrentSkipListMap<>();
+        boolean built = false;
+        try {
+            source.accept(rebuilt);
+            built = true;
+        } finally {
+            synchronized (this) {
+                if (built) {
+                    pendingChanges.forEach(change -> change.accept(rebuilt));
+                    entries = rebuilt;
+                }
+                pendingChanges = null;
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // 대략적인 메모리 사용량 (O(n))
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (String key : entries.keySet()) {
+            bytes += ENTRY_OVERHEAD_BYTES + (isLatin1(key) ? key.length() : key.length() * 2L);
+        }
+        return bytes;
+    }
+
+    private void apply(Consumer<Map<String, Long>> change) {
+        change.accept(entries);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,38 @@
+package study.datajpa.seed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * DatasetSeeder 가 만들 데이터 모양
+ *
+ * 테스트 / 벤치마크에서는 직접 만들어서 넘기고, seed 프로필에서는 datajpa.seed.* 설정으로 바인딩한다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datajpa.seed")
+public class DatasetSeedProperties {
+
+    private int teams = 100;
+    private int members = 100_000;
+
+    // 팀 크기 분포 (Zipf 지수) : 0 이면 고르게, 1 이상이면 앞쪽 팀에 회원이 몰린다.
+    private double teamSizeSkew = 0.0;
+
+    // 나이는 [minAge, maxAge] 에서 고르게 뽑는다.
+    private int minAge = 0;
+    private int maxAge = 99;
+
+    // 회원 이름 : userNamePrefix + 번호 (userNameWidth 자리까지 0 으로 채움, 0 이면 채우지 않음)
+    // > userName 은 natural id (unique) 이므로 이미 있는 이름과 겹치지 않는 prefix 를 써야 한다.
+    private String userNamePrefix = "member";
+    private int userNameWidth = 0;
+    private String teamNamePrefix = "team";
+
+    private int batchSize = 1000;
+    private long randomSeed = 42; // 같은 값이면 같은 데이터가 만들어진다.
+    private boolean rebuildNameIndex = true; // 적재 후 MemberNameIndex 를 다시 만든다.
+    private boolean exitAfter = false; // seed 프로필 : 적재 후 애플리케이션 종료
+
+}
@@ -0,0 +1,281 @@
+package study.datajpa.seed;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import study.datajpa.cache.ResponseCache;
+import study.datajpa.datasource.ReadWriteRoutingDataSource;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.Team;
+import study.datajpa.repository.support.CountCache;
+import study.datajpa.search.MemberNameIndex;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 대량 데이터 적재 (팀 N 개, 회원 M 명)
+ *
+ * JPA 를 거치지 않고 JDBC batch insert 로 바로 넣는다. (영속성 컨텍스트, 감사(auditing), p6spy X)
+ * - id 는 엔티티 시퀀스에서 미리 예약한다. (H2 : select next value for seq from system_range(1, n))
+ *   > pooled-lo 이므로 시퀀스 값 하나가 [value, value + allocationSize) 구간이다. 이후 JPA 로 저장해도 id 가 겹치지 않는다.
+ * - 적재가 끝나면 JPA 를 거치지 않은 만큼 캐시를 직접 비운다. (2차 캐시, natural id / 쿼리 캐시, count 캐시, 응답 캐시, userName 인덱스)
+ *   > 회원은 COMMIT_ROWS 마다 커밋하므로 중간에 실패해도 이미 커밋된 행이 남는다. 실패해도 캐시는 비운다.
+ *
+ * 사용처 : 테스트, 벤치마크(BenchmarkContext), HTTP 부하 테스트, seed 프로필(SeedRunner)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DatasetSeeder {
+
+    private static final String INSERT_TEAM = "insert into team (team_id, name, create_date_time, last_modified_date_time, created_by, last_modified_by)"
+            + " values (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MEMBER = "insert into member (member_id, username, age, team_id, create_date_time, last_modified_date_time, created_by, last_modified_by)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String AUDITOR = "seeder";
+    private static final int COMMIT_ROWS = 50_000;
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CountCache countCache;
+    private final MemberNameIndex memberNameIndex;
+    private final ResponseCache responseCache;
+
+    public SeedResult seed(DatasetSeedProperties spec) {
+        if (spec.getTeams() < 1 || spec.getMembers() < 0 || spec.getBatchSize() < 1 || spec.getMinAge() > spec.getMaxAge()) {
+            throw new IllegalArgumentException("Invalid seed spec: teams=" + spec.getTeams() + ", members=" + spec.getMembers()
+                    + ", batchSize=" + spec.getBatchSize() + ", age=" + spec.getMinAge() + ".." + spec.getMaxAge());
+        }
+
+        long start = System.nanoTime();
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdBlocks teamIds = new IdBlocks(sessionFactory, Team.class);
+        IdBlocks memberIds = new IdBlocks(sessionFactory, Member.class);
+
+        Connection connection = null;
+        try {
+            connection = rawDataSource().getConnection();
+            connection.setAutoCommit(false);
+
+            long[] savedTeamIds = insertTeams(connection, spec, teamIds.reserve(connection, spec.getTeams()));
+            insertMembers(connection, spec, memberIds.reserve(connection, spec.getMembers()), savedTeamIds);
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            throw new IllegalStateException("Seeding failed", e);
+        } finally {
+            resetAndClose(connection);
+
+            evictCaches(sessionFactory.getCache());
+            if (spec.isRebuildNameIndex()) {
+                memberNameIndex.rebuild();
+            }
+        }
+
+        SeedResult result = new SeedResult(spec.getTeams(), spec.getMembers(), (System.nanoTime() - start) / 1_000_000);
+        log.info("Seeded teams={}, members={} in {}ms ({} rows/s)",
+                result.getTeams(), result.getMembers(), result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private long[] insertTeams(Connection connection, DatasetSeedProperties spec, IdIterator ids) throws SQLException {
+        long[] teamIds = new long[spec.getTeams()];
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_TEAM)) {
+            for (int i = 0; i < teamIds.length; i++) {
+                teamIds[i] = ids.next();
+                statement.setLong(1, teamIds[i]);
+                statement.setString(2, spec.getTeamNamePrefix() + i);
+                statement.setTimestamp(3, now);
+                statement.setTimestamp(4, now);
+                statement.setString(5, AUDITOR);
+                statement.setString(6, AUDITOR);
+                statement.addBatch();
+                if ((i + 1) % spec.getBatchSize() == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+        return teamIds;
+    }
+
+    private void insertMembers(Connection connection, DatasetSeedProperties spec, IdIterator ids, long[] teamIds) throws SQLException {
+        double[] teamCdf = zipfCdf(teamIds.length, spec.getTeamSizeSkew());
+        SplittableRandom random = new SplittableRandom(spec.getRandomSeed());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        StringBuilder userName = new StringBuilder();
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_MEMBER)) {
+            for (int i = 0; i < spec.getMembers(); i++) {
+                statement.setLong(1, ids.next());
+                statement.setString(2, userName(userName, spec, i));
+                statement.setInt(3, random.nextInt(spec.getMinAge(), spec.getMaxAge() + 1));
+                statement.setLong(4, teamIds[team(teamCdf, random.nextDouble())]);
+                statement.setTimestamp(5, now);
+                statement.setTimestamp(6, now);
+                statement.setString(7, AUDITOR);
+                statement.setString(8, AUDITOR);
+                statement.addBatch();
+
+                int rows = i + 1;
+                if (rows % spec.getBatchSize() == 0) {
+                    statement.executeBatch();
+                }
+                if (rows % COMMIT_ROWS == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private void evictCaches(Cache cache) {
+        cache.evictEntityData(Member.class);
+        cache.evictNaturalIdData(Member.class);
+        cache.evictEntityData(Team.class);
+        cache.evictCollectionData(Team.class.getName() + ".members");
+        cache.evictQueryRegions();
+        countCache.invalidate();
+        responseCache.invalidateBulk();
+    }
+
+    // p6spy(DecoratedDataSource)를 건너뛰고 커넥션 풀에서 바로 가져온다.
+    // 라우팅 DataSource 면 replica 가 골라질 수 있으므로 primary 를 직접 꺼낸다.
+    private DataSource rawDataSource() {
+        ReadWriteRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReadWriteRoutingDataSource.class);
+        DataSource target = routing != null ? routing.getPrimary() : dataSource;
+        HikariDataSource hikariDataSource = DataSourceUnwrapper.unwrap(target, HikariDataSource.class);
+        return hikariDataSource != null ? hikariDataSource : target;
+    }
+
+    private static String userName(StringBuilder builder, DatasetSeedProperties spec, int index) {
+        builder.setLength(0);
+        builder.append(spec.getUserNamePrefix());
+        String number = Integer.toString(index);
+        for (int i = number.length(); i < spec.getUserNameWidth(); i++) {
+            builder.append('0');
+        }
+        return builder.append(number).toString();
+    }
+
+    // k 번째 팀의 가중치 1 / k^s 를 누적한 분포 (마지막 값 1.0)
+    static double[] zipfCdf(int teams, double skew) {
+        double[] cdf = new double[teams];
+        double sum = 0;
+        for (int k = 0; k < teams; k++) {
+            sum += 1.0 / Math.pow(k + 1, skew);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < teams; k++) {
+            cdf[k] /= sum;
+        }
+        cdf[teams - 1] = 1.0;
+        return cdf;
+    }
+
+    static int team(double[] cdf, double random) {
+        int index = Arrays.binarySearch(cdf, random);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.warn("Rollback after seeding failure failed", e);
+        }
+    }
+
+    private static void resetAndClose(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            log.warn("Could not reset auto-commit", e);
+        }
+        JdbcUtils.closeConnection(connection);
+    }
+
+    /**
+     * 엔티티 시퀀스의 pooled-lo 블록 단위 id 예약
+     */
+    private static class IdBlocks {
+
+        private final String sequenceName;
+        private final int allocationSize;
+
+        private IdBlocks(SessionFactoryImplementor sessionFactory, Class<?> entityClass) {
+            SequenceStyleGenerator generator = (SequenceStyleGenerator) sessionFactory.getMetamodel()
+                    .entityPersister(entityClass)
+                    .getIdentifierGenerator();
+            this.sequenceName = generator.getDatabaseStructure().getName();
+            this.allocationSize = generator.getOptimizer().getIncrementSize();
+        }
+
+        private IdIterator reserve(Connection connection, int ids) throws SQLException {
+            int blocks = (ids + allocationSize - 1) / allocationSize;
+            long[] blockStarts = new long[blocks];
+            if (blocks > 0) {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "select next value for " + sequenceName + " from system_range(1, ?)")) {
+                    statement.setInt(1, blocks);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        for (int i = 0; resultSet.next(); i++) {
+                            blockStarts[i] = resultSet.getLong(1);
+                        }
+                    }
+                }
+                connection.commit();
+            }
+            return new IdIterator(blockStarts, allocationSize);
+        }
+
+    }
+
+    private static class IdIterator {
+
+        private final long[] blockStarts;
+        private final int allocationSize;
+        private int block;
+        private int offset;
+
+        private IdIterator(long[] blockStarts, int allocationSize) {
+            this.blockStarts = blockStarts;
+            this.allocationSize = allocationSize;
+        }
+
+        private long next() {
+            if (offset == allocationSize) {
+                block++;
+                offset = 0;
+            }
+            return blockStarts[block] + offset++;
+        }
+
+    }
+
+}
@@ -0,0 +1,22 @@
+package study.datajpa.seed;
+
+import lombok.Getter;
+
+@Getter
+public class SeedResult {
+
+    private final int teams;
+    private final int members;
+    private final long elapsedMillis;
+
+    public SeedResult(int teams, int members, long elapsedMillis) {
+        this.teams = teams;
+        this.members = members;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0 : (teams + members) * 1000L / elapsedMillis;
+    }
+
+}
@@ -0,0 +1,35 @@
+package study.datajpa.seed;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * seed 프로필 : 애플리케이션이 뜰 때 datajpa.seed.* 설정대로 데이터를 넣는다. (application-seed.yml)
+ * <p>
+ * ./gradlew bootRun --args='--spring.profiles.active=seed --datajpa.seed.members=1000000 --datajpa.seed.team-size-skew=1.1'
+ */
+@Component
+@Profile("seed")
+@EnableConfigurationProperties(DatasetSeedProperties.class)
+@RequiredArgsConstructor
+public class SeedRunner implements ApplicationRunner {
+
+    private final DatasetSeeder datasetSeeder;
+    private final DatasetSeedProperties datasetSeedProperties;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        datasetSeeder.seed(datasetSeedProperties);
+        if (datasetSeedProperties.isExitAfter()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+}
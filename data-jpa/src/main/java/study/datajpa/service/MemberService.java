@@ -1,13 +1,96 @@
 package study.datajpa.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.member.dto.MemberDto;
 import study.datajpa.repository.MemberRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
 @Service
 @RequiredArgsConstructor
 public class MemberService {
 
+    // 이 건수마다 응답 스트림을 flush 해서 chunk 단위로 내려보낸다.
+    private static final int FLUSH_INTERVAL = 1000;
+
     private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 전체 회원을 CSV 로 내보낸다.
+     * 스트리밍 조회 결과를 바로 writer 에 쓰기 때문에 회원 수가 늘어나도 힙 사용량은 일정하다.
+     */
+    @Transactional(readOnly = true)
+    public long exportCsv(Writer writer) throws IOException {
+        long count = 0;
+        writer.write("id,userName,teamName\n");
+
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            Iterator<MemberDto> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                MemberDto member = iterator.next();
+                writer.write(String.valueOf(member.getId()));
+                writer.write(',');
+                writer.write(csv(member.getUserName()));
+                writer.write(',');
+                writer.write(csv(member.getTeamName()));
+                writer.write('\n');
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * 전체 회원을 JSON 배열로 내보낸다.
+     */
+    @Transactional(readOnly = true)
+    public long exportJson(OutputStream out) throws IOException {
+        long count = 0;
+        // 기본 설정이면 writeValue 할 때마다 flush 되므로 끈다.
+        ObjectWriter memberWriter = objectMapper.writerFor(MemberDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<MemberDto> members = memberRepository.streamMemberDto()) {
+            generator.writeStartArray();
+
+            Iterator<MemberDto> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                memberWriter.writeValue(generator, iterator.next());
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+
+            generator.writeEndArray();
+        }
+        return count;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
 
 }
@@ -1,13 +1,36 @@
 package study.datajpa.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.stereotype.Service;
+import study.datajpa.entity.member.Team;
 import study.datajpa.repository.TeamRepository;
 
+import javax.persistence.EntityManagerFactory;
+
 @Service
 @RequiredArgsConstructor
 public class TeamService {
 
     private final TeamRepository teamRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Team 2차 캐시 통계 (hit, miss, put, 현재 개수)
+     * hibernate.generate_statistics 가 꺼져 있으면 값이 쌓이지 않는다.
+     */
+    public CacheRegionStatistics teamCacheStatistics() {
+        return statistics().getDomainDataRegionStatistics(Team.CACHE_REGION);
+    }
+
+    public CacheRegionStatistics teamQueryCacheStatistics() {
+        return statistics().getQueryRegionStatistics(Team.QUERY_CACHE_REGION);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
 
 }
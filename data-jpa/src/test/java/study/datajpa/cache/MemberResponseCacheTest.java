@@ -0,0 +1,137 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.CountCache;
+import study.datajpa.search.MemberNameIndex;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 응답 캐시는 커밋 후 이벤트로 무효화되므로 데이터를 커밋해 두고 테스트가 끝나면 직접 지운다.
+ * > JPQL 삭제는 캐시 무효화 aspect 를 거치지 않으므로 count / 응답 캐시, 이름 인덱스도 같이 정리한다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberResponseCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private MemberNameIndex memberNameIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.createQuery("delete from Member m where m.userName like 'etag-%'").executeUpdate());
+        countCache.invalidate();
+        responseCache.invalidateBulk();
+        memberNameIndex.rebuild();
+    }
+
+    @Test
+    public void memberNotModified() throws Exception {
+        // 1) Given
+        Member member = memberRepository.save(new Member("etag-1", 10));
+        String path = "/members1/" + member.getId();
+
+        // 2) When
+        MvcResult first = mockMvc.perform(get(path)).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        MvcResult second = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+
+        // 3) Then
+        assertEquals(200, first.getResponse().getStatus());
+        assertEquals("etag-1", first.getResponse().getContentAsString());
+        assertNotNull(etag);
+        assertEquals(304, second.getResponse().getStatus());
+        assertEquals("", second.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void memberChanged() throws Exception {
+        // 1) Given
+        Member member = memberRepository.save(new Member("etag-2", 10));
+        String path = "/members1/" + member.getId();
+        String etag = mockMvc.perform(get(path)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 2) When : 변경이 커밋되면 ETag 가 바뀐다.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.find(Member.class, member.getId()).changeInfo("etag-2-renamed", 11));
+        MvcResult result = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+
+        // 3) Then
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals("etag-2-renamed", result.getResponse().getContentAsString());
+        assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void pageNotModifiedUntilBulkUpdate() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("etag-3", 10));
+        String path = "/members?page=0&size=5&sort=id,desc";
+        String etag = mockMvc.perform(get(path)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 2) When
+        int notModified = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse().getStatus();
+        // bulk 연산은 lastModifiedDateTime 을 바꾸지 않지만 ETag 는 바뀌어야 한다.
+        memberRepository.bulkAgePlusInPlace(1000);
+        int afterBulk = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse().getStatus();
+
+        // 3) Then
+        assertEquals(304, notModified);
+        assertEquals(200, afterBulk);
+    }
+
+    @Test
+    public void pageChangedAfterDeleteInBatch() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("etag-4", 10));
+        Member deleted = memberRepository.save(new Member("etag-5", 10));
+        String path = "/members?page=0&size=5&sort=id,desc";
+        String etag = mockMvc.perform(get(path)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 2) When
+        // JPQL 삭제 > 엔티티 이벤트도 없고 lastModifiedDateTime 도 그대로다.
+        memberRepository.deleteAllInBatch(Collections.singletonList(deleted));
+        MvcResult result = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+
+        // 3) Then
+        assertEquals(200, result.getResponse().getStatus());
+        assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertFalse(result.getResponse().getContentAsString().contains("etag-5"));
+    }
+
+}
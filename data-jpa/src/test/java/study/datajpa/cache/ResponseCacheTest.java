@@ -0,0 +1,28 @@
+package study.datajpa.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    @Test
+    public void evictLeastRecentlyUsedOnly() throws Exception {
+        // 1) Given
+        ResponseCache responseCache = new ResponseCache(true, 2);
+        long version = responseCache.version();
+
+        responseCache.put("a", version, "\"a\"", "A");
+        responseCache.put("b", version, "\"b\"", "B");
+        responseCache.get("a", version);
+
+        // 2) When
+        responseCache.put("c", version, "\"c\"", "C");
+
+        // 3) Then
+        assertNotNull(responseCache.get("a", version));
+        assertNotNull(responseCache.get("c", version));
+        assertNull(responseCache.get("b", version));
+    }
+
+}
@@ -0,0 +1,125 @@
+package study.datajpa.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.monitoring.ConnectionHoldListener;
+import study.datajpa.monitoring.ConnectionHoldListener.PoolWindow;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 작은 풀(2개)에 커넥션을 오래 잡는 요청을 몰아넣고, 풀이 병목이라고 판단해서 늘어나는지 본다.
+ * 스케줄러 대신 테스트에서 adjust() 를 직접 호출한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "datajpa.connection-pool.adaptive.enabled=true",
+        "datajpa.connection-pool.adaptive.min-size=2",
+        "datajpa.connection-pool.adaptive.max-size=8",
+        "datajpa.connection-pool.adaptive.interval-millis=3600000"
+})
+class AdaptivePoolSizerTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private AdaptivePoolSizer adaptivePoolSizer;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConnectionHoldListener connectionHoldListener;
+
+    @Test
+    public void nextSize() throws Exception {
+        // DB 가 느리면 줄인다.
+        assertEquals(3, adaptivePoolSizer.nextSize(4, new PoolWindow(20, 80), 4, 3));
+        // 풀 대기가 길면 step 만큼 늘린다.
+        assertEquals(6, adaptivePoolSizer.nextSize(4, new PoolWindow(20, 1), 4, 3));
+        assertEquals(8, adaptivePoolSizer.nextSize(8, new PoolWindow(20, 1), 8, 3));
+        // 대부분 놀고 있으면 줄인다.
+        assertEquals(5, adaptivePoolSizer.nextSize(6, new PoolWindow(0, 1), 1, 0));
+        assertEquals(2, adaptivePoolSizer.nextSize(2, new PoolWindow(0, 1), 0, 0));
+        // 그 외에는 그대로
+        assertEquals(4, adaptivePoolSizer.nextSize(4, new PoolWindow(1, 1), 3, 0));
+    }
+
+    @Test
+    public void growUnderLoad() throws Exception {
+        // 1) Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        connectionHoldListener.drainWindow();
+        int initialSize = adaptivePoolSizer.currentSize();
+
+        // 2) When : 요청마다 커넥션을 20ms 잡고 있는다.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        memberRepository.count();
+                        sleep(20);
+                    });
+                }
+            }));
+        }
+
+        int maxSize = initialSize;
+        while (System.nanoTime() < deadline) {
+            sleep(200);
+            adaptivePoolSizer.adjust();
+            maxSize = Math.max(maxSize, adaptivePoolSizer.currentSize());
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // 3) Then
+        assertEquals(2, initialSize);
+        assertTrue(maxSize > initialSize, "pool did not grow: " + maxSize);
+        assertTrue(maxSize <= 8);
+
+        Timer hold = meterRegistry.find(ConnectionHoldListener.HOLD)
+                .tag("repository", "MemberRepository")
+                .tag("method", "count")
+                .timer();
+        assertNotNull(hold);
+        assertTrue(hold.count() > 0);
+        assertTrue(hold.mean(TimeUnit.MILLISECONDS) >= 20);
+        assertNotNull(meterRegistry.find("hikaricp.connections.pending").gauge());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package study.datajpa.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * H2 인메모리 DB 를 primary / replica 로 따로 띄우고 각 DB 에 자기 이름을 넣어둔다.
+ * "select name from whoami" 결과로 어느 쪽이 SQL 을 처리했는지 확인한다. (currentTarget 과 같아야 한다)
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    @Test
+    public void routeByReadOnly() throws Exception {
+        // 1) Given
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", h2("route-replica-0"));
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                h2("route-primary"), replicas, ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, 5000
+        );
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        // 2) When
+        String write = transaction(dataSource, false).execute(status -> whoami(dataSource) + "@" + ReadWriteRoutingDataSource.currentTarget());
+        String read = transaction(dataSource, true).execute(status -> whoami(dataSource) + "@" + ReadWriteRoutingDataSource.currentTarget());
+
+        // 3) Then
+        assertEquals("route-primary@" + ReadWriteRoutingDataSource.PRIMARY, write);
+        assertEquals("route-replica-0@replica-0", read);
+        assertEquals(1L, routing.servedConnections().get("replica-0"));
+        // 트랜잭션이 끝나면 커넥션이 닫히면서 비워진다.
+        assertNull(ReadWriteRoutingDataSource.currentTarget());
+    }
+
+    @Test
+    public void currentTargetRestoredAfterInnerTransaction() throws Exception {
+        // 1) Given
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", h2("nested-replica-0"));
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                h2("nested-primary"), replicas, ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, 5000
+        );
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate readOnlyRequiresNew = transaction(dataSource, true);
+        readOnlyRequiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // 2) When
+        List<String> targets = transaction(dataSource, false).execute(status -> {
+            List<String> seen = new ArrayList<>();
+            whoami(dataSource);
+            seen.add(ReadWriteRoutingDataSource.currentTarget());
+            seen.add(readOnlyRequiresNew.execute(inner -> {
+                whoami(dataSource);
+                return ReadWriteRoutingDataSource.currentTarget();
+            }));
+            seen.add(ReadWriteRoutingDataSource.currentTarget());
+            return seen;
+        });
+
+        // 3) Then
+        // 안쪽 트랜잭션(replica)이 끝나면 바깥 트랜잭션의 대상(primary)으로 돌아간다.
+        assertEquals(Arrays.asList(ReadWriteRoutingDataSource.PRIMARY, "replica-0", ReadWriteRoutingDataSource.PRIMARY), targets);
+        assertNull(ReadWriteRoutingDataSource.currentTarget());
+    }
+
+    @Test
+    public void roundRobin() throws Exception {
+        // 1) Given
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", h2("rr-replica-0"));
+        replicas.put("replica-1", h2("rr-replica-1"));
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                h2("rr-primary"), replicas, ReadWriteRoutingDataSource.Strategy.ROUND_ROBIN, 5000
+        );
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate readOnly = transaction(dataSource, true);
+
+        // 2) When
+        String first = readOnly.execute(status -> whoami(dataSource));
+        String second = readOnly.execute(status -> whoami(dataSource));
+        String third = readOnly.execute(status -> whoami(dataSource));
+
+        // 3) Then
+        assertNotEquals(first, second);
+        assertEquals(first, third);
+        assertEquals(2L, routing.servedConnections().get(first.substring("rr-".length())));
+        assertNull(ReadWriteRoutingDataSource.currentTarget());
+    }
+
+    @Test
+    public void fallbackToPrimary() throws Exception {
+        // 1) Given
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/~/nowhere", "sa", ""));
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                h2("fallback-primary"), replicas, ReadWriteRoutingDataSource.Strategy.LEAST_CONNECTIONS, 60_000
+        );
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate readOnly = transaction(dataSource, true);
+
+        // 2) When
+        String first = readOnly.execute(status -> whoami(dataSource));
+        String second = readOnly.execute(status -> whoami(dataSource) + "@" + ReadWriteRoutingDataSource.currentTarget());
+
+        // 3) Then
+        assertEquals("fallback-primary", first);
+        assertEquals("fallback-primary@" + ReadWriteRoutingDataSource.PRIMARY, second);
+        assertNull(routing.servedConnections().get("replica-0"));
+        assertEquals(2L, routing.servedConnections().get(ReadWriteRoutingDataSource.PRIMARY));
+    }
+
+    private static DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists whoami (name varchar(50))");
+        jdbcTemplate.update("delete from whoami");
+        jdbcTemplate.update("insert into whoami (name) values (?)", name);
+        return dataSource;
+    }
+
+    private static TransactionTemplate transaction(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate;
+    }
+
+    private static String whoami(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select name from whoami", String.class);
+    }
+
+}
@@ -0,0 +1,115 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 라우팅을 켜고 JpaTransactionManager + repository 의 @Transactional(readOnly = true) 경로로 확인한다.
+ * replica 는 primary 와 같은 DB 를 가리키므로 어느 쪽이 커넥션을 내줬는지는 servedConnections 로 본다.
+ */
+@SpringBootTest(properties = {
+        "datajpa.routing.enabled=true",
+        "datajpa.routing.replicas[0].url=${spring.datasource.url}",
+        "datajpa.routing.replicas[0].username=${spring.datasource.username}",
+        "datajpa.routing.replicas[0].maximum-pool-size=2",
+        "spring.datasource.hikari.maximum-pool-size=7"
+})
+class RoutingDataSourceConfigTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routing;
+
+    @Autowired
+    private HikariDataSource routingPrimaryDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void bindHikariProperties() throws Exception {
+        // spring.datasource.hikari.* 가 primary 풀에 적용된다.
+        assertEquals(7, routingPrimaryDataSource.getMaximumPoolSize());
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routingPrimaryDataSource.getPoolName());
+        assertSame(routingPrimaryDataSource, routing.getPrimary());
+    }
+
+    @Test
+    public void routeRepositoryTransactions() throws Exception {
+        // 1) Given
+        Map<String, Long> before = routing.servedConnections();
+
+        // 2) When
+        Member saved = memberRepository.save(new Member("routing-member", 10));
+        Map<String, Long> afterWrite = routing.servedConnections();
+
+        // SimpleJpaRepository.findAll = @Transactional(readOnly = true)
+        memberRepository.findAll();
+        Map<String, Long> afterRead = routing.servedConnections();
+
+        memberRepository.delete(saved);
+
+        // 3) Then
+        assertEquals(1L, served(afterWrite, ReadWriteRoutingDataSource.PRIMARY) - served(before, ReadWriteRoutingDataSource.PRIMARY));
+        assertEquals(0L, served(afterWrite, "replica-0") - served(before, "replica-0"));
+
+        assertEquals(0L, served(afterRead, ReadWriteRoutingDataSource.PRIMARY) - served(afterWrite, ReadWriteRoutingDataSource.PRIMARY));
+        assertEquals(1L, served(afterRead, "replica-0") - served(afterWrite, "replica-0"));
+    }
+
+    @Test
+    public void currentTargetInTransaction() throws Exception {
+        // 1) Given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // 2) When
+        String target = readOnly.execute(status -> {
+            memberRepository.findAll();
+            return ReadWriteRoutingDataSource.currentTarget();
+        });
+
+        // 3) Then
+        assertEquals("replica-0", target);
+        // 트랜잭션이 끝나면 커넥션을 돌려주면서 비워진다.
+        assertNull(ReadWriteRoutingDataSource.currentTarget());
+    }
+
+    @Test
+    public void servedConnectionsMetric() throws Exception {
+        // 1) Given
+        double before = servedMetric("replica-0");
+
+        // 2) When
+        memberRepository.findAll();
+
+        // 3) Then
+        assertEquals(1.0, servedMetric("replica-0") - before);
+        assertEquals((double) routing.servedConnections(ReadWriteRoutingDataSource.PRIMARY), servedMetric(ReadWriteRoutingDataSource.PRIMARY));
+    }
+
+    private double servedMetric(String target) {
+        return meterRegistry.get("datasource.routing.connections").tag("target", target).functionCounter().count();
+    }
+
+    private static long served(Map<String, Long> counts, String target) {
+        return counts.getOrDefault(target, 0L);
+    }
+
+}
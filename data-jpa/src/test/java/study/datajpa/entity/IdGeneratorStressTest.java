@@ -0,0 +1,136 @@
+package study.datajpa.entity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.Team;
+import study.datajpa.monitoring.QueryBudget;
+import study.datajpa.monitoring.SqlStatistics;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 여러 스레드가 동시에 Team / Member 를 섞어서 insert 할 때 id 할당 처리량을 측정한다.
+ * 각 스레드는 자기 트랜잭션에서 커밋하므로 테스트가 끝나면 직접 지운다.
+ */
+@SpringBootTest
+class IdGeneratorStressTest {
+
+    private static final int THREADS = 8;
+    private static final int MEMBERS_PER_THREAD = 1_000;
+    private static final int MEMBERS_PER_TEAM = 10;
+    private static final int BATCH_SIZE = 100; // hibernate.jdbc.batch_size
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("delete from Member m where m.userName like 'stress-%'").executeUpdate();
+            entityManager.createQuery("delete from Team t where t.name like 'stress-%'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void concurrentIdAllocation() throws Exception {
+        // 1) Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        Set<Long> memberIds = ConcurrentHashMap.newKeySet();
+        Set<Long> teamIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        // 2) When
+        // SqlStatistics 는 스레드 단위로 기록되므로 작업 스레드마다 따로 모아서 합친다.
+        List<Future<SqlStatistics>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+
+                return QueryBudget.record(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    Team team = null;
+                    for (int i = 0; i < MEMBERS_PER_THREAD; i++) {
+                        // Team 과 Member insert 를 섞는다. (order_inserts 로 batch 가 유지되어야 한다)
+                        if (i % MEMBERS_PER_TEAM == 0) {
+                            team = new Team("stress-" + thread + "-" + i);
+                            entityManager.persist(team);
+                            if (!teamIds.add(team.getId())) {
+                                duplicates.incrementAndGet();
+                            }
+                        }
+
+                        Member member = new Member("stress-" + thread + "-" + i, i, team);
+                        entityManager.persist(member);
+                        if (!memberIds.add(member.getId())) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }));
+            }));
+        }
+
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        int memberInserts = 0;
+        int teamInserts = 0;
+        for (Future<SqlStatistics> future : futures) {
+            SqlStatistics statistics = future.get();
+            memberInserts += inserts(statistics, "member");
+            teamInserts += inserts(statistics, "team");
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        executor.shutdown();
+
+        // 3) Then
+        int total = memberIds.size() + teamIds.size();
+        System.out.printf("##### %d threads, %,d ids in %,d ms : %,.0f ids/sec%n",
+                THREADS, total, elapsedNanos / 1_000_000, total / (elapsedNanos / 1_000_000_000.0));
+
+        assertEquals(0, duplicates.get());
+        // Team / Member 가 섞여도 batch 가 끊기지 않아야 한다. (행 단위 insert 로 돌아가면 실패)
+        assertEquals(THREADS * MEMBERS_PER_THREAD / BATCH_SIZE, memberInserts);
+        assertEquals(THREADS * MEMBERS_PER_THREAD / MEMBERS_PER_TEAM / BATCH_SIZE, teamInserts);
+        assertEquals(THREADS * MEMBERS_PER_THREAD, memberIds.size());
+        assertEquals(THREADS * MEMBERS_PER_THREAD / MEMBERS_PER_TEAM, teamIds.size());
+
+        Long savedMembers = new TransactionTemplate(transactionManager).execute(status -> entityManager.createQuery(
+                "select count(m) from Member m where m.userName like 'stress-%'", Long.class
+        ).getSingleResult());
+        assertEquals(THREADS * MEMBERS_PER_THREAD, savedMembers);
+    }
+
+    // executeBatch 한 번이 한 건으로 기록된다.
+    private int inserts(SqlStatistics statistics, String table) {
+        return statistics.getStatementShapes().entrySet().stream()
+                .filter(entry -> entry.getKey().toLowerCase().startsWith("insert into " + table + " "))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+
+}
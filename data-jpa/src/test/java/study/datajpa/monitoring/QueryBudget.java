@@ -0,0 +1,58 @@
+package study.datajpa.monitoring;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 테스트용 쿼리 예산(budget) 검사
+ *
+ * QueryBudget.assertMaxStatements(2, () -> memberRepository.findMemberFetchJoin());
+ * > 블록 안에서 실행된 SQL 이 2개를 넘으면 실패하고, 실행된 SQL 모양별 횟수를 보여준다.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static <T> T assertMaxStatements(int budget, Supplier<T> action) {
+        SqlStatistics statistics = SqlStatisticsHolder.open("query budget");
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            SqlStatisticsHolder.close(statistics);
+        }
+
+        if (statistics.getStatementCount() > budget) {
+            StringBuilder message = new StringBuilder()
+                    .append("Query budget exceeded: expected <= ").append(budget)
+                    .append(" but was ").append(statistics.getStatementCount());
+            for (Map.Entry<String, Integer> entry : statistics.getStatementShapes().entrySet()) {
+                message.append(System.lineSeparator())
+                        .append("  ").append(entry.getValue()).append("x ").append(entry.getKey());
+            }
+            fail(message.toString());
+        }
+        return result;
+    }
+
+    public static void assertMaxStatements(int budget, Runnable action) {
+        assertMaxStatements(budget, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static SqlStatistics record(Runnable action) {
+        SqlStatistics statistics = SqlStatisticsHolder.open("record");
+        try {
+            action.run();
+        } finally {
+            SqlStatisticsHolder.close(statistics);
+        }
+        return statistics;
+    }
+
+}
@@ -0,0 +1,74 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.member.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsAspectTest {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Test
+    public void recordRepositoryInvocations() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("metric1", 10));
+        memberRepository.save(new Member("metric2", 20));
+        long before = count("MemberRepository", "findAll", "success");
+
+        // 2) When
+        memberRepository.findAll();
+        memberJpaRepository.findAll();
+        // @Repository 클래스 > NoResultException 이 EmptyResultDataAccessException 으로 변환된다.
+        assertThrows(EmptyResultDataAccessException.class, () -> memberJpaRepository.findByUserName("metric-unknown"));
+
+        // 3) Then
+        assertEquals(before + 1, count("MemberRepository", "findAll", "success"));
+        assertTrue(count("MemberJpaRepository", "findAll", "success") >= 1);
+        assertTrue(count("MemberJpaRepository", "findByUserName", "error") >= 1);
+        // 예외 변환 advisor 는 나중에 추가되어 안쪽에서 실행되므로 aspect 는 변환된 예외를 기록한다.
+        Timer error = meterRegistry.find(RepositoryMetricsAspect.INVOCATIONS)
+                .tag("repository", "MemberJpaRepository")
+                .tag("method", "findByUserName")
+                .tag("outcome", "error")
+                .tag("exception", EmptyResultDataAccessException.class.getSimpleName())
+                .timer();
+        assertNotNull(error);
+        assertTrue(error.count() >= 1);
+
+        DistributionSummary resultSize = meterRegistry.find(RepositoryMetricsAspect.RESULT_SIZE)
+                .tag("repository", "MemberRepository")
+                .tag("method", "findAll")
+                .summary();
+        assertNotNull(resultSize);
+        assertTrue(resultSize.max() >= 2);
+    }
+
+    private long count(String repository, String method, String outcome) {
+        Timer timer = meterRegistry.find(RepositoryMetricsAspect.INVOCATIONS)
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+}
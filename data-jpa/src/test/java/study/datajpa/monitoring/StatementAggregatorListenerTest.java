@@ -0,0 +1,84 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 모든 SQL 을 느린 SQL 로 보고 (slow-threshold-millis=0) 로그를 확인한다.
+ * 실행 계획은 별도 스레드에서 붙으므로 로그가 나올 때까지 기다린다.
+ */
+@SpringBootTest(properties = {
+        "datajpa.sql-statistics.slow-threshold-millis=0",
+        "datajpa.sql-statistics.explain-min-interval-millis=0"
+})
+@ExtendWith(OutputCaptureExtension.class)
+class StatementAggregatorListenerTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void explainSlowSelect(CapturedOutput output) throws Exception {
+        // 1) Given, 2) When
+        memberRepository.findByUserNameAndAgeGreaterThan("slow-sql-select", 10);
+
+        // 3) Then
+        // 바인딩 값이 채워진 SQL 다음 줄에 실행 계획
+        long deadline = System.currentTimeMillis() + 5000;
+        while (plan(output, "'slow-sql-select'") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String plan = plan(output, "'slow-sql-select'");
+        assertNotNull(plan, output.getOut());
+        assertFalse(plan.contains("EXPLAIN failed"), plan);
+    }
+
+    @Test
+    public void slowUpdateWithoutPlan(CapturedOutput output) throws Exception {
+        // 1) Given, 2) When
+        jdbcTemplate.update("update member set age = age where username = 'slow-sql-update'");
+
+        // 3) Then
+        // select 가 아니면 실행 계획 없이 호출한 스레드에서 바로 남긴다.
+        assertEquals(1, slowLogLines(output, "'slow-sql-update'").size(), output.getOut());
+        assertNull(plan(output, "'slow-sql-update'"));
+    }
+
+    // "Slow SQL (..ms): ..marker.." 다음 줄이 "plan: " 으로 시작하면 그 줄
+    private static String plan(CapturedOutput output, String marker) {
+        List<String> lines = Arrays.asList(output.getOut().split("\\R"));
+        for (int i = 0; i < lines.size() - 1; i++) {
+            if (isSlowLog(lines.get(i), marker) && lines.get(i + 1).startsWith("plan: ")) {
+                return lines.get(i + 1);
+            }
+        }
+        return null;
+    }
+
+    private static List<String> slowLogLines(CapturedOutput output, String marker) {
+        return Arrays.stream(output.getOut().split("\\R"))
+                .filter(line -> isSlowLog(line, marker))
+                .collect(Collectors.toList());
+    }
+
+    // p6spy 자체 로그에도 SQL 이 찍히므로 "Slow SQL" 줄만 본다.
+    private static boolean isSlowLog(String line, String marker) {
+        return line.contains("Slow SQL") && line.contains(marker);
+    }
+
+}
@@ -0,0 +1,89 @@
+package study.datajpa.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementAggregatorTest {
+
+    @Test
+    public void normalize() throws Exception {
+        assertEquals("select * from member where user_name=? and age>?",
+                SqlShapes.normalize("select *\n    from member\n    where user_name='it''s' and age>10"));
+        assertEquals("select * from member where member_id in (?...)",
+                SqlShapes.normalize("select * from member where member_id in (?, ?, ?)"));
+        assertEquals("select * from member where member_id in (?...)",
+                SqlShapes.normalize("select * from member where member_id in (1, 2)"));
+        // 식별자 안의 숫자는 그대로 둔다.
+        assertEquals("select member0_.member_id as member_i1_0_ from member member0_",
+                SqlShapes.normalize("select member0_.member_id as member_i1_0_ from member member0_"));
+    }
+
+    @Test
+    public void topByShape() throws Exception {
+        // 1) Given
+        StatementAggregator aggregator = new StatementAggregator(100);
+        for (int i = 0; i < 100; i++) {
+            aggregator.recordStatement("select * from member where member_id=" + i, TimeUnit.MILLISECONDS.toNanos(1));
+            aggregator.recordRows("select * from member where member_id=" + i, 1);
+        }
+        aggregator.recordStatement("select * from team", TimeUnit.MILLISECONDS.toNanos(50));
+
+        // 2) When
+        List<StatementAggregator.ShapeReport> byCount = aggregator.top(10, "count");
+        List<StatementAggregator.ShapeReport> byMax = aggregator.top(1, "max");
+
+        // 3) Then
+        assertEquals(2, byCount.size());
+        StatementAggregator.ShapeReport member = byCount.get(0);
+        assertEquals("select * from member where member_id=?", member.getSql());
+        assertEquals(100, member.getCount());
+        assertEquals(100, member.getRows());
+        assertEquals(100.0, member.getTotalMillis(), 0.001);
+        assertEquals("select * from team", byMax.get(0).getSql());
+    }
+
+    @Test
+    public void percentile() throws Exception {
+        // 1) Given
+        StatementAggregator aggregator = new StatementAggregator(100);
+        for (int i = 0; i < 995; i++) {
+            aggregator.recordStatement("select 1", TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (int i = 0; i < 5; i++) {
+            aggregator.recordStatement("select 1", TimeUnit.MILLISECONDS.toNanos(100));
+        }
+
+        // 2) When
+        StatementAggregator.ShapeReport report = aggregator.top(1, "p99").get(0);
+
+        // 3) Then : 버킷 상한이므로 25% 까지 크게 나올 수 있다.
+        assertTrue(report.getP99Millis() >= 1.0 && report.getP99Millis() <= 1.25, "p99 = " + report.getP99Millis());
+        assertEquals(100.0, report.getMaxMillis(), 0.001);
+    }
+
+    @Test
+    public void boundedShapes() throws Exception {
+        // 1) Given
+        StatementAggregator aggregator = new StatementAggregator(2);
+
+        // 2) When
+        aggregator.recordStatement("select * from member", 1_000);
+        aggregator.recordStatement("select * from team", 1_000);
+        aggregator.recordStatement("select * from orders", 1_000);
+        aggregator.recordStatement("select * from items", 1_000);
+
+        // 3) Then
+        List<StatementAggregator.ShapeReport> reports = aggregator.top(10, "count");
+        assertEquals(3, reports.size());
+        assertEquals(StatementAggregator.OTHER, reports.get(0).getSql());
+        assertEquals(2, reports.get(0).getCount());
+
+        aggregator.reset();
+        assertTrue(aggregator.top(10, "total").isEmpty());
+    }
+
+}
@@ -0,0 +1,159 @@
+package study.datajpa.repository;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.repository.support.BulkUpdateResult;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * bulkAgePlusPartitioned 는 파티션마다 별도 트랜잭션으로 커밋하므로 테스트 데이터를 커밋해 두고 직접 지운다.
+ * 파티션이 여러 개로 나뉘도록 partition-size 를 작게 준다.
+ */
+@SpringBootTest(properties = {
+        "datajpa.bulk-update.partition-size=100",
+        "datajpa.bulk-update.workers=4"
+})
+class MemberBulkUpdateTest {
+
+    private static final int MEMBER_COUNT = 2000;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PartitionFailureListener failingListener;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.createQuery("delete from Member m where m.userName like 'bulk-%'").executeUpdate()
+        );
+    }
+
+    @Test
+    public void bulkAgePlusPartitioned() throws Exception {
+        // 1) Given
+        saveMembers();
+
+        // 2) When
+        BulkUpdateResult result = memberRepository.bulkAgePlusPartitioned(20);
+        System.out.println("result = " + result);
+
+        // 3) Then
+        assertTrue(result.getPartitions() > 1);
+        assertIncrementedOnce();
+    }
+
+    @Test
+    public void bulkAgePlusPartitionedRetriesTransientFailure() throws Exception {
+        // 1) Given
+        saveMembers();
+        // 파티션 하나의 update 가 실행된 직후(커밋 전)에 일시적인 실패를 한 번 낸다.
+        failingListener.failNextPartitionUpdate();
+
+        // 2) When
+        BulkUpdateResult result = memberRepository.bulkAgePlusPartitioned(20);
+
+        // 3) Then
+        // 실패한 파티션은 롤백되고 다시 실행된다. > 어떤 행도 두 번 증가하지 않는다.
+        assertFalse(failingListener.isArmed());
+        assertEquals(1, result.getRetries());
+        assertIncrementedOnce();
+    }
+
+    @Test
+    public void bulkAgePlusPartitionedInsideTransaction() throws Exception {
+        // 파티션이 각자 커밋되므로 바깥 트랜잭션 안에서는 호출할 수 없다.
+        assertThrows(IllegalStateException.class, () ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                        memberRepository.bulkAgePlusPartitioned(20)
+                )
+        );
+    }
+
+    private void saveMembers() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members.add(new Member("bulk-" + i, i % 40));
+        }
+        memberRepository.saveAllBatched(members);
+    }
+
+    private void assertIncrementedOnce() {
+        List<Member> updated = new TransactionTemplate(transactionManager).execute(status ->
+                entityManager.createQuery("select m from Member m where m.userName like 'bulk-%'", Member.class)
+                        .getResultList()
+        );
+        long incremented = 0;
+        for (Member member : updated) {
+            int original = Integer.parseInt(member.getUserName().substring("bulk-".length())) % 40;
+            // 20 살 이상만 정확히 한 번 증가
+            assertEquals(original >= 20 ? original + 1 : original, member.getAge());
+            if (original >= 20) {
+                incremented++;
+            }
+        }
+        assertEquals(MEMBER_COUNT / 2, incremented);
+    }
+
+    @TestConfiguration
+    static class FailingListenerConfig {
+
+        @Bean
+        public PartitionFailureListener partitionFailureListener() {
+            return new PartitionFailureListener();
+        }
+
+    }
+
+    /**
+     * 켜져 있으면 다음 파티션 update 가 실행된 뒤에 TransientDataAccessException 을 한 번 던진다.
+     */
+    static class PartitionFailureListener extends SimpleJdbcEventListener {
+
+        private final AtomicBoolean armed = new AtomicBoolean();
+
+        void failNextPartitionUpdate() {
+            armed.set(true);
+        }
+
+        boolean isArmed() {
+            return armed.get();
+        }
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            String sql = statementInformation.getSql();
+            if (e == null && sql != null && sql.toLowerCase().startsWith("update member")
+                    && armed.compareAndSet(true, false)) {
+                throw new QueryTimeoutException("injected transient failure");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.Team;
+import study.datajpa.repository.support.InListChunks;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * findByNamesParallel 은 청크마다 별도 트랜잭션으로 조회하므로 데이터를 커밋해 두고 테스트가 끝나면 직접 지운다.
+ */
+@SpringBootTest
+class MemberInListLookupTest {
+
+    private static final int MEMBER_COUNT = 3000;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("delete from Member m where m.userName like 'inlist-%'").executeUpdate();
+            entityManager.createQuery("delete from Team t where t.name like 'inlist-%'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void split() throws Exception {
+        // 1) Given
+        List<Integer> values = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 1, 2);
+
+        // 2) When
+        List<List<Integer>> chunks = InListChunks.split(values, 6);
+
+        // 3) Then
+        // 6 > 4 로 내림, 마지막 청크(9, 10)는 그대로 2개
+        assertEquals(3, chunks.size());
+        assertEquals(Arrays.asList(1, 2, 3, 4), chunks.get(0));
+        assertEquals(Arrays.asList(5, 6, 7, 8), chunks.get(1));
+        assertEquals(Arrays.asList(9, 10), chunks.get(2));
+
+        // 3개 > 마지막 값을 반복해서 4개로 채운다.
+        assertEquals(Arrays.asList(1, 2, 3, 3), InListChunks.split(Arrays.asList(1, 2, 3), 8).get(0));
+    }
+
+    @Test
+    public void findByNamesParallel() throws Exception {
+        // 1) Given
+        Team team = teamRepository.save(new Team("inlist-team"));
+
+        List<Member> members = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members.add(new Member("inlist-" + i, i % 100, team));
+            names.add("inlist-" + i);
+        }
+        memberRepository.saveAllBatched(members);
+        names.addAll(names.subList(0, 500));
+        names.add("inlist-unknown");
+
+        // 2) When
+        List<Member> parallel = memberRepository.findByNamesParallel(names);
+        List<Member> sequential = new TransactionTemplate(transactionManager)
+                .execute(status -> memberRepository.findByNamesChunked(names));
+
+        // 3) Then
+        assertEquals(MEMBER_COUNT, parallel.size());
+        assertEquals(MEMBER_COUNT, parallel.stream().map(Member::getId).distinct().count());
+        assertEquals(sequential.size(), parallel.size());
+
+        // 페치 조인으로 가져왔으므로 준영속 상태에서도 Team 을 읽을 수 있다.
+        assertEquals("inlist-team", parallel.get(0).getTeamName());
+    }
+
+    @Test
+    public void findByNamesParallelInTransaction() throws Exception {
+        // 1) Given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // 2) When
+        // 트랜잭션 안 > 작업 스레드를 쓰지 않고 현재 트랜잭션에서 조회하므로 커밋 전 데이터도 보인다.
+        List<Member> found = transaction.execute(status -> {
+            Team team = teamRepository.save(new Team("inlist-tx-team"));
+            memberRepository.save(new Member("inlist-tx-1", 10, team));
+            memberRepository.save(new Member("inlist-tx-2", 20, team));
+            List<Member> members = memberRepository.findByNamesParallel(Arrays.asList("inlist-tx-1", "inlist-tx-2"));
+            assertTrue(members.stream().allMatch(entityManager::contains));
+            status.setRollbackOnly();
+            return members;
+        });
+
+        // 3) Then
+        assertEquals(2, found.size());
+    }
+
+}
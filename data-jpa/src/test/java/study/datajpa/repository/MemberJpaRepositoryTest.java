@@ -75,18 +75,19 @@ class MemberJpaRepositoryTest {
     @Test
     public void findByUsernameAndAgeGreaterThan() throws Exception {
         // 1) Given
-        Member member1 = new Member("BBB", 100, null);
+        Member member1 = new Member("AAA", 100, null);
         Member member2 = new Member("BBB", 200, null);
         memberJpaRepository.save(member1);
         memberJpaRepository.save(member2);
 
         // 2) When
-        List<Member> members = memberJpaRepository.findByUsernameAndAgeGreaterThan(member1.getUserName(), 150);
+        List<Member> members = memberJpaRepository.findByUsernameAndAgeGreaterThan(member2.getUserName(), 150);
 
         // 3) Then
         assertEquals("BBB", members.get(0).getUserName());
         assertEquals(200, members.get(0).getAge());
         assertEquals(1, members.size());
+        assertTrue(memberJpaRepository.findByUsernameAndAgeGreaterThan(member2.getUserName(), 250).isEmpty()); // userName 은 유일하므로 나이 조건만 확인
     }
 
     @Test
@@ -110,6 +111,31 @@ class MemberJpaRepositoryTest {
         assertEquals(5, totalCount);
     }
 
+    @Test
+    public void keysetPagingTest() throws Exception {
+        // 1) Given
+        memberJpaRepository.save(new Member("m1", 10, null));
+        memberJpaRepository.save(new Member("m2", 10, null));
+        memberJpaRepository.save(new Member("m3", 10, null));
+        memberJpaRepository.save(new Member("m4", 10, null));
+        memberJpaRepository.save(new Member("m5", 10, null));
+        memberJpaRepository.save(new Member("m6", 20, null));
+
+        // 2) When
+        int age = 10;
+        int limit = 3;
+        List<Member> firstPage = memberJpaRepository.findByPage(age, null, null, limit);
+        Member last = firstPage.get(firstPage.size() - 1);
+        List<Member> secondPage = memberJpaRepository.findByPage(age, last.getUserName(), last.getId(), limit);
+
+        // 3) Then
+        assertEquals(3, firstPage.size());
+        assertEquals("m5", firstPage.get(0).getUserName());
+        assertEquals(2, secondPage.size());
+        assertEquals("m2", secondPage.get(0).getUserName());
+        assertEquals("m1", secondPage.get(1).getUserName());
+    }
+
     @Test
     public void testBulkUpdateAge() throws Exception {
         // 1) Given
@@ -0,0 +1,100 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.monitoring.QueryBudget;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * natural id 캐시 / 2차 캐시는 커밋된 뒤에 채워지므로 트랜잭션을 나눠서 확인하고, 테스트가 끝나면 직접 지운다.
+ */
+@SpringBootTest
+class MemberNaturalIdTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        transaction().executeWithoutResult(status ->
+                entityManager.createQuery("delete from Member m where m.userName like 'natural-%'").executeUpdate()
+        );
+    }
+
+    @Test
+    public void repeatedLookupWithoutSql() throws Exception {
+        // 1) Given
+        Member member = memberRepository.save(new Member("natural-a", 10));
+        transaction().executeWithoutResult(status -> memberRepository.findMemberByUserName("natural-a"));
+
+        // 2) When
+        // 새 트랜잭션(새 영속성 컨텍스트)이어도 natural id 캐시 + 2차 캐시로 찾는다.
+        Member found = QueryBudget.assertMaxStatements(0, () ->
+                transaction().execute(status -> memberRepository.findMemberByUserName("natural-a"))
+        );
+        Member foundByJpa = QueryBudget.assertMaxStatements(0, () ->
+                transaction().execute(status -> memberJpaRepository.findByUserName("natural-a"))
+        );
+
+        // 3) Then
+        assertEquals(member.getId(), found.getId());
+        assertEquals(member.getId(), foundByJpa.getId());
+        assertTrue(memberRepository.findOptionalByUserName("natural-a").isPresent());
+        assertEquals(1, memberRepository.findListByUserName("natural-a").size());
+    }
+
+    @Test
+    public void renameInvalidatesNaturalId() throws Exception {
+        // 1) Given
+        Member member = memberRepository.save(new Member("natural-before", 10));
+        transaction().executeWithoutResult(status -> memberRepository.findMemberByUserName("natural-before"));
+
+        // 2) When
+        transaction().executeWithoutResult(status ->
+                memberRepository.findById(member.getId()).get().changeInfo("natural-after", 10)
+        );
+
+        // 3) Then
+        assertNull(transaction().execute(status -> memberRepository.findMemberByUserName("natural-before")));
+        assertEquals(member.getId(), transaction().execute(status -> memberRepository.findMemberByUserName("natural-after")).getId());
+        assertTrue(memberRepository.findListByUserName("natural-before").isEmpty());
+    }
+
+    @Test
+    public void uniqueUserName() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("natural-unique", 10));
+
+        // 2) When, 3) Then
+        assertThrows(DataIntegrityViolationException.class, () -> memberRepository.save(new Member("natural-unique", 20)));
+    }
+
+    private TransactionTemplate transaction() {
+        if (transactionTemplate == null) {
+            transactionTemplate = new TransactionTemplate(transactionManager);
+        }
+        return transactionTemplate;
+    }
+
+}
@@ -0,0 +1,64 @@
+package study.datajpa.repository;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.Team;
+import study.datajpa.entity.member.dto.MemberDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberReportJpaRepositoryTest {
+
+    @Autowired
+    MemberReportJpaRepository memberReportJpaRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Test
+    public void forEachMember() throws Exception {
+        // 1) Given
+        Team team = teamRepository.save(new Team("TeamA"));
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("member" + i, i, team));
+        }
+        entityManager.flush(); // StatelessSession 은 flush 된 데이터만 본다.
+        entityManager.clear();
+
+        // 2) When
+        List<Member> members = new ArrayList<>();
+        List<MemberDto> memberDtos = new ArrayList<>();
+        List<String> userNames = new ArrayList<>();
+        memberReportJpaRepository.forEachMember(members::add);
+        memberReportJpaRepository.forEachMemberDto(memberDtos::add);
+        memberReportJpaRepository.forEachUserName(userNames::add);
+
+        // 3) Then
+        assertEquals(10, members.size());
+        assertEquals(10, memberDtos.size());
+        assertEquals(10, userNames.size());
+        for (Member member : members) {
+            assertFalse(entityManager.contains(member));
+            assertEquals("TeamA", member.getTeamName()); // 페치 조인
+        }
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+}
@@ -1,24 +1,37 @@
 package study.datajpa.repository;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.member.Member;
 import study.datajpa.entity.member.Team;
+import study.datajpa.entity.member.dto.MemberCursor;
 import study.datajpa.entity.member.dto.MemberDto;
 import study.datajpa.entity.member.projections.MemberProjection;
 import study.datajpa.entity.member.projections.MemberUserNameOnly;
 import study.datajpa.entity.member.projections.NestedClosedProjections;
+import study.datajpa.monitoring.QueryBudget;
+import study.datajpa.monitoring.SqlStatistics;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -94,21 +107,81 @@ class MemberRepositoryTest {
         assertEquals(count, 0);
     }
 
+    @Test
+    public void saveAllBatched() throws Exception {
+        // 1) Given
+        Team teamA = new Team("TeamA");
+        teamRepository.save(teamA);
+        entityManager.flush();
+
+        int rows = 2_000;
+        List<Member> batched = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batched.add(new Member("batch" + i, i % 100, teamA));
+        }
+
+        // 2) When
+        // JDBC batch + 주기적인 flush/clear (처리량은 JMH 로 잰다)
+        long[] savedCount = new long[1];
+        SqlStatistics statistics = QueryBudget.record(() -> savedCount[0] = memberRepository.saveAllBatched(batched));
+
+        // 3) Then
+        // batch_size(100) 건마다 executeBatch 한 번 > insert 20번
+        int inserts = statistics.getStatementShapes().entrySet().stream()
+                .filter(entry -> entry.getKey().toLowerCase().startsWith("insert into member "))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+        assertEquals(rows / 100, inserts);
+        assertEquals(rows, savedCount[0]);
+        assertEquals(rows, memberRepository.count());
+        assertFalse(entityManager.contains(batched.get(0)));
+        assertNotNull(batched.get(rows - 1).getId());
+    }
+
+    @Test
+    public void auditingPerTransaction() throws Exception {
+        // 1) Given
+        Member member1 = new Member("member1", 10);
+        Member member2 = new Member("member2", 20);
+
+        memberRepository.save(member1);
+        memberRepository.save(member2);
+        entityManager.flush();
+
+        // 2) When
+        member1.changeInfo(member1.getUserName(), 11);
+        member2.changeInfo(member2.getUserName(), 21);
+        entityManager.flush();
+
+        // 3) Then
+        // 같은 트랜잭션 > auditor 하나
+        assertNotNull(member1.getCreatedBy());
+        assertEquals(member1.getCreatedBy(), member2.getCreatedBy());
+        assertEquals(member1.getCreatedBy(), member1.getLastModifiedBy());
+        // 같은 트랜잭션의 persist > 시각 하나
+        assertNotNull(member1.getCreateDateTime());
+        assertEquals(member1.getCreateDateTime(), member2.getCreateDateTime());
+        // 같은 flush > flush 시작 시각 하나
+        assertEquals(member1.getLastModifiedDateTime(), member2.getLastModifiedDateTime());
+        assertFalse(member1.getLastModifiedDateTime().isBefore(member1.getCreateDateTime()));
+    }
+
     @Test
     public void findByUserNameAndAgeGreaterThan() throws Exception {
         // 1) Given
-        Member member1 = new Member("BBB", 100, null);
+        Member member1 = new Member("AAA", 100, null);
         Member member2 = new Member("BBB", 200, null);
         memberRepository.save(member1);
         memberRepository.save(member2);
 
         // 2) When
-        List<Member> members = memberRepository.findByUserNameAndAgeGreaterThan(member1.getUserName(), 150);
+        List<Member> members = memberRepository.findByUserNameAndAgeGreaterThan(member2.getUserName(), 150);
 
         // 3) Then
         assertEquals("BBB", members.get(0).getUserName());
         assertEquals(200, members.get(0).getAge());
         assertEquals(1, members.size());
+        assertTrue(memberRepository.findByUserNameAndAgeGreaterThan(member2.getUserName(), 250).isEmpty()); // userName 은 유일하므로 나이 조건만 확인
     }
 
     @Test
@@ -146,6 +219,29 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void streamMemberDto() throws Exception {
+        // 1) Given
+        Team teamA = new Team("TeamA");
+        teamRepository.save(teamA);
+
+        memberRepository.save(new Member("AAA", 10, teamA));
+        memberRepository.save(new Member("BBB", 20, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // 2) When
+        List<MemberDto> memberDtos;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            memberDtos = stream.collect(Collectors.toList());
+        }
+
+        // 3) Then
+        // left join 이므로 팀이 없는 회원도 포함되고, 엔티티는 영속성 컨텍스트에 올라오지 않는다.
+        assertEquals(2, memberDtos.size());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
     @Test
     public void findByNames() throws Exception {
         // 1) Given
@@ -163,6 +259,31 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void findByNamesChunked() throws Exception {
+        // 1) Given
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            names.add("member" + i);
+        }
+        List<Member> members = new ArrayList<>();
+        for (String name : names) {
+            members.add(new Member(name, 10));
+        }
+        memberRepository.saveAllBatched(members);
+
+        // 중복 / 없는 이름 섞기
+        names.addAll(names.subList(0, 100));
+        names.add("unknown");
+
+        // 2) When
+        List<Member> result = memberRepository.findByNamesChunked(names);
+
+        // 3) Then
+        assertEquals(1500, result.size());
+        assertEquals(1500, result.stream().map(Member::getId).distinct().count());
+    }
+
     @Test
     public void pagingTest() throws Exception {
         // 1) Given
@@ -225,6 +346,135 @@ class MemberRepositoryTest {
         assertEquals(2, memberPage.getTotalPages());
     }
 
+    @Test
+    public void slicingTest() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("m1", 10, null));
+        memberRepository.save(new Member("m2", 10, null));
+        memberRepository.save(new Member("m3", 10, null));
+        memberRepository.save(new Member("m4", 10, null));
+        memberRepository.save(new Member("m5", 10, null));
+
+        // 2) When
+        // count 쿼리 없이 limit + 1 (4개) 만 조회한다.
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "userName"));
+        Slice<Member> memberSlice = memberRepository.findSliceByAge(10, pageRequest);
+        Slice<Member> lastSlice = memberRepository.findSliceByAge(10, pageRequest.next());
+
+        // 3) Then
+        assertEquals(3, memberSlice.getContent().size());
+        assertTrue(memberSlice.hasNext());
+        assertEquals(2, lastSlice.getContent().size());
+        assertFalse(lastSlice.hasNext());
+    }
+
+    @Test
+    public void cachedCountPagingTest() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("m1", 10, null));
+        memberRepository.save(new Member("m2", 10, null));
+        memberRepository.save(new Member("m3", 10, null));
+
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "userName"));
+        Page<Member> firstPage = memberRepository.findByAgeWithCachedCount(10, pageRequest);
+
+        // 2) When
+        // save 가 호출되면 캐시된 count 는 버려진다.
+        memberRepository.save(new Member("m4", 10, null));
+        Page<Member> secondPage = memberRepository.findByAgeWithCachedCount(10, pageRequest);
+
+        // 3) Then
+        assertEquals(3, firstPage.getTotalElements());
+        assertEquals(4, secondPage.getTotalElements());
+        assertEquals("m4", secondPage.getContent().get(0).getUserName());
+        assertEquals(4, memberRepository.findAllWithCachedCount(pageRequest).getTotalElements());
+    }
+
+    @Test
+    public void memberDtoPagingTest() throws Exception {
+        // 1) Given
+        Team teamA = new Team("TeamA");
+        teamRepository.save(teamA);
+        memberRepository.save(new Member("m1", 10, teamA));
+        memberRepository.save(new Member("m2", 10, null));
+        memberRepository.save(new Member("m3", 10, teamA));
+        entityManager.flush();
+        entityManager.clear();
+
+        // 2) When
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "userName"));
+        Page<MemberDto> memberDtoPage = memberRepository.findMemberDtoPage(pageRequest);
+
+        // 3) Then
+        assertEquals(3, memberDtoPage.getTotalElements());
+        assertEquals(2, memberDtoPage.getContent().size());
+        assertEquals("m3", memberDtoPage.getContent().get(0).getUserName());
+        assertEquals("TeamA", memberDtoPage.getContent().get(0).getTeamName());
+        assertNull(memberDtoPage.getContent().get(1).getTeamName());
+        // 영속성 컨텍스트에 올라온 엔티티가 없다.
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    public void keysetPagingTest() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("m1", 10, null));
+        memberRepository.save(new Member("m2", 10, null));
+        memberRepository.save(new Member("m3", 10, null));
+        memberRepository.save(new Member("m4", 10, null));
+        memberRepository.save(new Member("m5", 10, null));
+
+        // 2) When
+        // offset 없이 마지막으로 읽은 키 다음부터 조회한다.
+        List<Member> firstPage = memberRepository.findNextByUserNameDesc(null, null, 3);
+        Member last = firstPage.get(firstPage.size() - 1);
+        List<Member> secondPage = memberRepository.findNextByUserNameDesc(last.getUserName(), last.getId(), 3);
+
+        List<Member> firstIdPage = memberRepository.findNextById(null, 3);
+        List<Member> secondIdPage = memberRepository.findNextById(firstIdPage.get(2).getId(), 3);
+
+        // 3) Then
+        assertEquals(3, firstPage.size());
+        assertEquals("m5", firstPage.get(0).getUserName());
+        assertEquals("m3", last.getUserName());
+        assertEquals(2, secondPage.size());
+        assertEquals("m2", secondPage.get(0).getUserName());
+        assertEquals("m1", secondPage.get(1).getUserName());
+
+        assertEquals(3, firstIdPage.size());
+        assertEquals(2, secondIdPage.size());
+        assertTrue(firstIdPage.get(2).getId() < secondIdPage.get(0).getId());
+    }
+
+    @Test
+    public void keysetPagingNullUserName() throws Exception {
+        // 1) Given
+        // 정렬 : m3, m2, null(a), null(b) > 두 번째 페이지의 경계가 null 구간 안에 걸린다.
+        memberRepository.save(new Member("m2", 10, null));
+        memberRepository.save(new Member("m3", 10, null));
+        Member nullA = memberRepository.save(new Member(null, 10, null));
+        Member nullB = memberRepository.save(new Member(null, 10, null));
+
+        // 2) When
+        List<Member> firstPage = memberRepository.findNextByUserNameDesc(null, null, 3);
+        MemberCursor cursor = MemberCursor.decode(
+                MemberCursor.next(MemberCursor.ORDER_USER_NAME, firstPage.get(firstPage.size() - 1)).encode());
+        List<Member> secondPage = memberRepository.findNextByUserNameDesc(cursor.getUserName(), cursor.getId(), 3);
+
+        // 3) Then
+        assertEquals(Arrays.asList("m3", "m2", null),
+                firstPage.stream().map(Member::getUserName).collect(Collectors.toList()));
+        assertEquals(nullA.getId(), firstPage.get(2).getId());
+        assertNull(cursor.getUserName());
+        assertEquals(nullA.getId(), cursor.getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(nullB.getId(), secondPage.get(0).getId());
+
+        // "" 와 null 은 다른 커서다.
+        Member empty = new Member("", 10, null);
+        assertEquals("", MemberCursor.decode(MemberCursor.next(MemberCursor.ORDER_USER_NAME, empty).encode()).getUserName());
+    }
+
     @Test
     public void testBulkUpdateAge() throws Exception {
         // 1) Given
@@ -254,6 +504,78 @@ class MemberRepositoryTest {
         assertEquals(3, resultCount);
     }
 
+    @Test
+    public void bulkAgePlusInPlace() throws Exception {
+        // 1) Given
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("member" + i, i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        List<Member> members = memberRepository.findAll();
+
+        // 2) When
+        // 대상(8, 9살)만 refresh > update 1 + select 2
+        SqlStatistics inPlace = QueryBudget.record(() -> {
+            memberRepository.bulkAgePlusInPlace(8);
+            for (Member member : members) {
+                memberRepository.findById(member.getId()).get().getAge();
+            }
+        });
+
+        // clearAutomatically > update 1 + 다시 조회 10
+        SqlStatistics cleared = QueryBudget.record(() -> {
+            memberRepository.bulkAgePlus(9);
+            for (Member member : members) {
+                memberRepository.findById(member.getId()).get().getAge();
+            }
+        });
+
+        // 3) Then
+        assertEquals(3, inPlace.getStatementCount());
+        assertEquals(11, cleared.getStatementCount());
+        assertEquals(9, members.get(8).getAge()); // 같은 인스턴스에 반영되어 있다.
+        assertEquals(10, members.get(9).getAge());
+        assertEquals(7, members.get(7).getAge());
+    }
+
+    @Test
+    public void bulkMoveTeamAndDeleteInPlace() throws Exception {
+        // 1) Given
+        Team teamA = teamRepository.save(new Team("TeamA"));
+        Team teamB = teamRepository.save(new Team("TeamB"));
+        for (int i = 0; i < 3; i++) {
+            memberRepository.save(new Member("member" + i, 10 + i, teamA));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        teamA = teamRepository.findById(teamA.getId()).get();
+        teamB = teamRepository.findById(teamB.getId()).get();
+        List<Member> members = new ArrayList<>(teamA.getMembers()); // teamA.members 초기화
+
+        // 2) When
+        int moved = memberRepository.bulkMoveTeam(teamA, teamB);
+
+        // 3) Then
+        assertEquals(3, moved);
+        assertEquals(0, teamA.getMembers().size());
+        assertEquals(3, teamB.getMembers().size());
+        for (Member member : members) {
+            assertEquals("TeamB", member.getTeamName());
+        }
+
+        // 2) When
+        int deleted = memberRepository.bulkDeleteByAgeBetween(10, 11);
+
+        // 3) Then
+        assertEquals(2, deleted);
+        assertFalse(entityManager.contains(members.get(0)));
+        assertFalse(entityManager.contains(members.get(1)));
+        assertTrue(entityManager.contains(members.get(2)));
+        assertEquals(1, teamB.getMembers().size());
+    }
+
     @Test
     public void findMemberLazy() throws Exception {
         // 1) Given
@@ -288,6 +610,85 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void queryBudget() throws Exception {
+        // 1) Given
+        Team teamA = new Team("TeamA");
+        teamRepository.save(teamA);
+        for (int i = 0; i < 5; i++) {
+            Team team = new Team("Team" + i);
+            teamRepository.save(team);
+            memberRepository.save(new Member("Member" + i, 10, team));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        // 2) When
+        // 페치 조인 : 쿼리 1번
+        QueryBudget.assertMaxStatements(1, () -> {
+            for (Member member : memberRepository.findMemberFetchJoin()) {
+                member.getTeamName();
+            }
+        });
+        entityManager.clear();
+
+        // 팀을 하나씩 직접 조회 : 같은 모양의 SQL 이 반복 > N + 1 로 잡힌다.
+        SqlStatistics statistics = QueryBudget.record(() -> {
+            for (Member member : memberRepository.findMemberCustom()) {
+                entityManager.createQuery("select t from Team t where t.id = :id", Team.class)
+                        .setParameter("id", member.getTeam().getId())
+                        .getSingleResult();
+            }
+        });
+
+        // 3) Then
+        assertEquals(6, statistics.getStatementCount());
+        assertEquals(1, statistics.suspectedNPlusOne(5).size());
+        assertThrows(AssertionFailedError.class, () -> QueryBudget.assertMaxStatements(1, () -> {
+            entityManager.clear();
+            memberRepository.findMemberCustom().forEach(member -> entityManager.createQuery(
+                    "select t from Team t where t.id = :id", Team.class
+            ).setParameter("id", member.getTeam().getId()).getSingleResult());
+        }));
+    }
+
+    @Test
+    public void batchFetchTeamOnPage() throws Exception {
+        // 1) Given
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        Team teamC = new Team("TeamC");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        teamRepository.save(teamC);
+
+        memberRepository.save(new Member("Member1", 10, teamA));
+        memberRepository.save(new Member("Member2", 10, teamB));
+        memberRepository.save(new Member("Member3", 10, teamC));
+        memberRepository.save(new Member("Member4", 10, teamA));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // 2) When
+        // 컨트롤러와 같은 방식으로 DTO 변환 (member.getTeamName() 에서 지연 로딩)
+        Slice<Member> memberSlice = memberRepository.findSliceBy(PageRequest.of(0, 10));
+        List<MemberDto> memberDtos = memberSlice.map(
+                member -> new MemberDto(
+                        member.getId(), member.getUserName(), member.getTeamName()
+                )
+        ).getContent();
+
+        // 3) Then
+        // member 조회 1번 + team in 쿼리 1번 (batch fetch 가 없으면 1 + 3)
+        assertEquals(4, memberDtos.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
     @Test
     public void queryHint() throws Exception {
         // 1) Given
@@ -384,4 +785,52 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void materializedProjection() throws Exception {
+        // 1) Given
+        Team teamA = new Team("TeamA");
+        teamRepository.save(teamA);
+        Member member1 = new Member("Member1", 10, teamA);
+        Member member2 = new Member("Member2", 20);
+        memberRepository.save(member1);
+        memberRepository.save(member2);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        // 2) When
+        List<MemberUserNameOnly> userNameOnly = memberRepository.findMaterializedByUserName("Member1", MemberUserNameOnly.class);
+        List<NestedClosedProjections> nested = memberRepository.findMaterializedByUserName("Member1", NestedClosedProjections.class);
+        List<MemberProjection> noTeam = memberRepository.findMaterializedByUserName("Member2", MemberProjection.class);
+        Page<MemberProjection> nativePage = memberRepository.findByNativeProjectionMaterialized(PageRequest.of(0, 1000));
+        Page<MemberProjection> proxyPage = memberRepository.findByNativeProjection(PageRequest.of(0, 1000));
+        Slice<MemberProjection> nativeSlice = memberRepository.findSliceByNativeProjectionMaterialized(PageRequest.of(0, 1));
+        Slice<MemberProjection> proxySlice = memberRepository.findSliceByNativeProjection(PageRequest.of(0, 1));
+
+        // 3) Then : 스프링 데이터 프록시와 같은 값, 프록시가 아닌 생성된 클래스
+        assertEquals("Member1 10", userNameOnly.get(0).getUserName());
+        assertEquals(memberRepository.findProjectionByUserName("Member1").get(0).getUserName(), userNameOnly.get(0).getUserName());
+        assertFalse(Proxy.isProxyClass(userNameOnly.get(0).getClass()));
+
+        assertEquals("Member1", nested.get(0).getUserName());
+        assertEquals("TeamA", nested.get(0).getTeam().getName());
+
+        assertEquals(member2.getId(), noTeam.get(0).getId());
+        assertNull(noTeam.get(0).getTeamName());
+
+        assertEquals(proxyPage.getTotalElements(), nativePage.getTotalElements());
+        assertEquals(rows(proxyPage), rows(nativePage));
+
+        assertEquals(1, nativeSlice.getNumberOfElements());
+        assertEquals(proxySlice.hasNext(), nativeSlice.hasNext());
+        assertTrue(nativeSlice.hasNext());
+    }
+
+    private static List<String> rows(Slice<MemberProjection> page) {
+        return page.getContent().stream()
+                .map(projection -> projection.getId() + ":" + projection.getUserName() + ":" + projection.getTeamName())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
 }
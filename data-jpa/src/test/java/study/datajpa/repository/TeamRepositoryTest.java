@@ -0,0 +1,93 @@
+package study.datajpa.repository;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.member.Team;
+import study.datajpa.service.TeamService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 2차 캐시는 커밋된 데이터만 캐시하므로 트랜잭션 롤백 테스트(@Transactional)로는 확인할 수 없다.
+ * 각 호출이 각자 트랜잭션에서 커밋되도록 하고, 테스트가 끝나면 직접 지운다.
+ */
+@SpringBootTest
+class TeamRepositoryTest {
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamService teamService;
+
+    private final List<Team> savedTeams = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        for (Team team : savedTeams) {
+            teamRepository.findById(team.getId()).ifPresent(teamRepository::delete);
+        }
+    }
+
+    @Test
+    public void secondLevelCache() throws Exception {
+        // 1) Given
+        Team team = save(new Team("CachedTeam"));
+        CacheRegionStatistics statistics = teamService.teamCacheStatistics();
+        long hitCount = statistics.getHitCount();
+
+        // 2) When
+        Team found1 = teamRepository.findById(team.getId()).orElse(null);
+        Team found2 = teamRepository.findById(team.getId()).orElse(null);
+
+        // 3) Then
+        // 커밋 시점에 캐시에 올라가므로 두 번 모두 DB 를 거치지 않는다.
+        assertNotNull(found1);
+        assertNotNull(found2);
+        assertEquals(hitCount + 2, statistics.getHitCount());
+    }
+
+    @Test
+    public void evictOnDelete() throws Exception {
+        // 1) Given
+        Team team = save(new Team("DeletedTeam"));
+        assertTrue(teamRepository.findById(team.getId()).isPresent());
+
+        // 2) When
+        teamRepository.delete(team);
+
+        // 3) Then
+        assertFalse(teamRepository.findById(team.getId()).isPresent());
+    }
+
+    @Test
+    public void queryCache() throws Exception {
+        // 1) Given
+        save(new Team("QueryCachedTeam1"));
+        int before = teamRepository.findAll().size();
+        CacheRegionStatistics statistics = teamService.teamQueryCacheStatistics();
+        long hitCount = statistics.getHitCount();
+
+        // 2) When
+        int cached = teamRepository.findAll().size();
+        save(new Team("QueryCachedTeam2")); // team 테이블 변경 > 쿼리 캐시 무효화
+        int after = teamRepository.findAll().size();
+
+        // 3) Then
+        assertEquals(before, cached);
+        assertEquals(hitCount + 1, statistics.getHitCount());
+        assertEquals(before + 1, after);
+    }
+
+    private Team save(Team team) {
+        savedTeams.add(teamRepository.save(team));
+        return team;
+    }
+
+}
@@ -0,0 +1,33 @@
+package study.datajpa.repository.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountCacheTest {
+
+    @Test
+    public void evictLeastRecentlyUsedOnly() throws Exception {
+        // 1) Given
+        CountCache countCache = new CountCache(true, 60_000, 2);
+        AtomicInteger queries = new AtomicInteger();
+
+        countCache.get("q", new Object[]{1}, () -> queries.incrementAndGet());
+        countCache.get("q", new Object[]{2}, () -> queries.incrementAndGet());
+        countCache.get("q", new Object[]{1}, () -> queries.incrementAndGet());
+
+        // 2) When
+        countCache.get("q", new Object[]{3}, () -> queries.incrementAndGet());
+
+        // 3) Then
+        assertEquals(3, queries.get());
+        countCache.get("q", new Object[]{1}, () -> queries.incrementAndGet());
+        countCache.get("q", new Object[]{3}, () -> queries.incrementAndGet());
+        assertEquals(3, queries.get());
+        countCache.get("q", new Object[]{2}, () -> queries.incrementAndGet());
+        assertEquals(4, queries.get());
+    }
+
+}
@@ -0,0 +1,123 @@
+package study.datajpa.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.dto.MemberNameDto;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 인덱스는 커밋된 변경만 반영하므로 트랜잭션을 나눠서 확인하고, 테스트가 끝나면 직접 지운다.
+ */
+@SpringBootTest
+class MemberNameIndexTest {
+
+    @Autowired
+    private MemberNameIndex memberNameIndex;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.createQuery("delete from Member m where m.userName like 'search-%'").executeUpdate()
+        );
+        memberNameIndex.rebuild();
+    }
+
+    @Test
+    public void followCommittedChanges() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("search-alpha", 10));
+        Member alpine = memberRepository.save(new Member("search-alpine", 10));
+        memberRepository.save(new Member("search-beta", 10));
+
+        // 롤백된 insert 는 반영되지 않는다.
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.save(new Member("search-alps", 10));
+            entityManager.flush();
+            status.setRollbackOnly();
+        });
+
+        // 2) When, 3) Then
+        assertEquals(2, memberNameIndex.search("search-al", 10).size());
+
+        transactionTemplate.executeWithoutResult(status ->
+                memberRepository.findById(alpine.getId()).get().changeInfo("search-gamma", 10)
+        );
+        assertEquals(Collections.singletonList("search-alpha"), userNames(memberNameIndex.search("search-al", 10)));
+        assertEquals(Collections.singletonList("search-gamma"), userNames(memberNameIndex.search("search-g", 10)));
+
+        memberRepository.deleteById(alpine.getId());
+        assertTrue(memberNameIndex.search("search-g", 10).isEmpty());
+    }
+
+    @Test
+    public void rebuildAfterDeleteInBatch() throws Exception {
+        // 1) Given
+        Member delta = memberRepository.save(new Member("search-delta", 10));
+        memberRepository.save(new Member("search-delta2", 10));
+        assertEquals(2, memberNameIndex.search("search-delta", 10).size());
+
+        // 2) When
+        // 엔티티 이벤트 없이 JPQL 로 지운다. > 커밋 후 백그라운드에서 다시 만든다.
+        memberRepository.deleteAllByIdInBatch(Collections.singletonList(delta.getId()));
+
+        // 3) Then
+        long deadline = System.currentTimeMillis() + 5000;
+        while (memberNameIndex.search("search-delta", 10).size() != 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(Collections.singletonList("search-delta2"), userNames(memberNameIndex.search("search-delta", 10)));
+    }
+
+    @Test
+    public void rebuild() throws Exception {
+        // 1) Given
+        for (int i = 0; i < 1000; i++) {
+            memberRepository.save(new Member("search-" + i, 10));
+        }
+
+        // 2) When
+        MemberNameIndexStats stats = memberNameIndex.rebuild();
+
+        // 3) Then
+        assertTrue(stats.getEntries() >= 1000);
+        assertTrue(stats.getEstimatedBytes() > 0);
+        // search-1, search-10, search-100 ~ ... 중에서 userName 순으로 20개
+        List<MemberNameDto> found = memberNameIndex.search("search-1", 20);
+        assertEquals(20, found.size());
+        assertEquals("search-1", found.get(0).getUserName());
+        assertEquals("search-10", found.get(1).getUserName());
+        // 검색 지연 시간도 같이 집계된다.
+        MemberNameIndexStats afterSearch = memberNameIndex.stats();
+        assertTrue(afterSearch.getSearches() > 0);
+        assertTrue(afterSearch.getMaxSearchMicros() >= afterSearch.getAverageSearchMicros());
+        System.out.println("stats = " + afterSearch);
+    }
+
+    private static List<String> userNames(List<MemberNameDto> members) {
+        return members.stream().map(MemberNameDto::getUserName).collect(Collectors.toList());
+    }
+
+}
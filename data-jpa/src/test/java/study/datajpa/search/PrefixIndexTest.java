@@ -0,0 +1,73 @@
+package study.datajpa.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    @Test
+    public void search() throws Exception {
+        // 1) Given
+        PrefixIndex index = new PrefixIndex();
+        index.put("alpha", 1L);
+        index.put("alpine", 2L);
+        index.put("alps", 3L);
+        index.put("beta", 4L);
+
+        // 2) When
+        List<String> al = keys(index.search("al", 10));
+        List<String> limited = keys(index.search("al", 2));
+
+        // 3) Then
+        assertEquals(Arrays.asList("alpha", "alpine", "alps"), al);
+        assertEquals(Arrays.asList("alpha", "alpine"), limited);
+        assertTrue(index.search("gamma", 10).isEmpty());
+        assertEquals(4, index.search("", 10).size());
+    }
+
+    @Test
+    public void removeOnlyMatchingId() throws Exception {
+        // 1) Given
+        PrefixIndex index = new PrefixIndex();
+        index.put("alpha", 1L);
+
+        // 2) When
+        index.remove("alpha", 2L); // 다른 회원의 이름이 된 경우
+
+        // 3) Then
+        assertEquals(1, index.size());
+        index.remove("alpha", 1L);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void changesDuringRebuildAreKept() throws Exception {
+        // 1) Given
+        PrefixIndex index = new PrefixIndex();
+        index.put("old", 1L);
+
+        // 2) When
+        // 재구성 도중에 들어온 변경 (source 는 변경 전 데이터를 읽었다고 가정)
+        index.rebuild(entries -> {
+            entries.put("old", 1L);
+            entries.put("stale", 2L);
+            index.put("new", 3L);
+            index.remove("stale", 2L);
+        });
+
+        // 3) Then
+        assertEquals(Arrays.asList("new", "old"), keys(index.search("", 10)));
+        assertTrue(index.estimatedBytes() > 0);
+    }
+
+    private static List<String> keys(List<Map.Entry<String, Long>> entries) {
+        return entries.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,125 @@
+package study.datajpa.seed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.cache.ResponseCache;
+import study.datajpa.entity.member.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.support.CountCache;
+import study.datajpa.search.MemberNameIndex;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DatasetSeeder 는 자기 커넥션으로 커밋하므로 테스트가 끝나면 직접 지운다.
+ * > JPQL 삭제는 캐시 무효화 aspect 를 거치지 않으므로 count / 응답 캐시, 이름 인덱스도 같이 정리한다.
+ */
+@SpringBootTest
+class DatasetSeederTest {
+
+    private static final int TEAMS = 20;
+    private static final int MEMBERS = 20_000;
+
+    @Autowired
+    private DatasetSeeder datasetSeeder;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberNameIndex memberNameIndex;
+
+    @Autowired
+    private CountCache countCache;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    public void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("delete from Member m where m.userName like 'seed-%'").executeUpdate();
+            entityManager.createQuery("delete from Team t where t.name like 'seed-%'").executeUpdate();
+        });
+        countCache.invalidate();
+        responseCache.invalidateBulk();
+        memberNameIndex.rebuild();
+    }
+
+    @Test
+    public void zipf() throws Exception {
+        double[] uniform = DatasetSeeder.zipfCdf(4, 0);
+        assertEquals(0.25, uniform[0], 1e-9);
+        assertEquals(1.0, uniform[3], 1e-9);
+        assertEquals(0, DatasetSeeder.team(uniform, 0.1));
+        assertEquals(3, DatasetSeeder.team(uniform, 0.99));
+
+        // s = 1 : 1, 1/2, 1/3, 1/4 > 첫 팀이 12/25
+        double[] skewed = DatasetSeeder.zipfCdf(4, 1.0);
+        assertEquals(12.0 / 25, skewed[0], 1e-9);
+    }
+
+    @Test
+    public void seed() throws Exception {
+        // 1) Given
+        DatasetSeedProperties spec = new DatasetSeedProperties();
+        spec.setTeams(TEAMS);
+        spec.setMembers(MEMBERS);
+        spec.setTeamSizeSkew(1.0);
+        spec.setMinAge(20);
+        spec.setMaxAge(29);
+        spec.setUserNamePrefix("seed-");
+        spec.setUserNameWidth(6);
+        spec.setTeamNamePrefix("seed-team");
+
+        // 2) When
+        SeedResult result = datasetSeeder.seed(spec);
+
+        // 3) Then
+        assertEquals(MEMBERS, result.getMembers());
+
+        long members = entityManager.createQuery("select count(m) from Member m where m.userName like 'seed-%'", Long.class)
+                .getSingleResult();
+        assertEquals(MEMBERS, members);
+
+        Object[] ages = entityManager.createQuery(
+                "select min(m.age), max(m.age) from Member m where m.userName like 'seed-%'", Object[].class
+        ).getSingleResult();
+        assertEquals(20, ages[0]);
+        assertEquals(29, ages[1]);
+
+        // 팀 크기가 앞쪽 팀에 몰린다. (기대값 : 첫 팀 약 28%, 마지막 팀 약 1.4%)
+        List<Long> teamSizes = entityManager.createQuery(
+                "select count(m) from Member m join m.team t where t.name like 'seed-team%' group by t.id order by count(m) desc",
+                Long.class
+        ).getResultList();
+        assertEquals(TEAMS, teamSizes.size());
+        assertTrue(teamSizes.get(0) > teamSizes.get(TEAMS - 1) * 10, teamSizes.toString());
+
+        // 이름 패턴, userName 인덱스
+        assertTrue(memberRepository.findOptionalByUserName("seed-000000").isPresent());
+        assertEquals(10, memberNameIndex.search("seed-0001", 10).size());
+
+        // 이후 JPA 로 저장해도 예약한 id 와 겹치지 않는다. (겹치면 PK 제약 조건 위반)
+        Member saved = memberRepository.save(new Member("seed-extra", 30));
+        assertNotNull(saved.getId());
+        long total = entityManager.createQuery("select count(m) from Member m where m.userName like 'seed-%'", Long.class)
+                .getSingleResult();
+        assertEquals(MEMBERS + 1, total);
+    }
+
+}
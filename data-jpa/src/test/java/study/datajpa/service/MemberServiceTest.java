@@ -0,0 +1,69 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.member.Member;
+import study.datajpa.entity.member.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class MemberServiceTest {
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Test
+    public void exportCsv() throws Exception {
+        // 1) Given
+        Team team = new Team("Team,A");
+        teamRepository.save(team);
+        memberRepository.save(new Member("member1", 10, team));
+        memberRepository.save(new Member("member\"2\"", 20, null));
+
+        // 2) When
+        StringWriter writer = new StringWriter();
+        long count = memberService.exportCsv(writer);
+
+        // 3) Then
+        String csv = writer.toString();
+        assertEquals(2, count);
+        assertTrue(csv.startsWith("id,userName,teamName\n"));
+        assertTrue(csv.contains(",member1,\"Team,A\"\n"));
+        assertTrue(csv.contains(",\"member\"\"2\"\"\",\n"));
+    }
+
+    @Test
+    public void exportJson() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("member1", 10, null));
+        memberRepository.save(new Member("member2", 20, null));
+
+        // 2) When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = memberService.exportJson(out);
+
+        // 3) Then
+        String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(2, count);
+        assertTrue(json.startsWith("["));
+        assertTrue(json.endsWith("]"));
+        assertTrue(json.contains("\"userName\":\"member1\""));
+    }
+
+}